@@ -0,0 +1,439 @@
+package com.gamelife;
+
+import com.gamelife.ClusterProtocol.Link;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Coordinateur d'une simulation répartie : découpe la grille en bandes
+ * horizontales confiées à des workers (ClusterWorker) et expose la partie
+ * comme un Game ordinaire, ce qui permet de la servir par l'API web habituelle.
+ * Les workers échangent eux-mêmes leurs rangées de bord : le coordinateur
+ * n'envoie qu'une commande par génération et par worker.
+ * Si un worker tombe, la grille est perdue : la commande en cours échoue
+ * (UncheckedIOException) et la commande suivante reconnecte les workers et
+ * repart d'une grille vide.
+ */
+public class ClusterCoordinator implements Game, Closeable {
+    private final int rows;
+    private final int cols;
+    private final List<InetSocketAddress> addresses;
+    private final List<Link> workers = new ArrayList<>();
+    private final int[] firstRows;
+    private final int[] stripRows;
+    private final int[] populations;
+    private Rule rule;
+    private int generation;
+
+    public ClusterCoordinator(List<InetSocketAddress> addresses, int rows, int cols, Rule rule) throws IOException {
+        if (addresses.isEmpty() || rows < addresses.size() || cols <= 0) {
+            throw new IllegalArgumentException("Dimensions invalides pour " + addresses.size()
+                    + " workers: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.addresses = new ArrayList<>(addresses);
+        this.rule = rule;
+
+        // Bandes de hauteurs égales à une ligne près
+        int count = addresses.size();
+        this.firstRows = new int[count];
+        this.stripRows = new int[count];
+        this.populations = new int[count];
+        for (int i = 0, first = 0; i < count; i++) {
+            stripRows[i] = rows / count + (i < rows % count ? 1 : 0);
+            firstRows[i] = first;
+            first += stripRows[i];
+        }
+
+        connect(30);
+        System.out.println("Grille " + rows + "x" + cols + " repartie sur " + count + " workers");
+    }
+
+    /**
+     * Se connecte aux workers et leur attribue leur bande, vide. Un numéro de
+     * session aléatoire permet à chaque worker de reconnaître son voisin nord.
+     */
+    private void connect(int attempts) throws IOException {
+        long session = new SplittableRandom().nextLong();
+        int count = addresses.size();
+        try {
+            for (InetSocketAddress address : addresses) {
+                Link link = Link.connect(address.getHostString(), address.getPort(), attempts);
+                link.out.writeInt(ClusterProtocol.HELLO_COORDINATOR);
+                workers.add(link);
+            }
+
+            // Initialisation dans l'ordre : chaque worker se connecte à son voisin sud,
+            // qui accepte déjà les connexions avant d'avoir reçu sa propre commande INIT
+            for (int i = 0; i < count; i++) {
+                InetSocketAddress south = i + 1 < count ? addresses.get(i + 1) : null;
+                Link link = workers.get(i);
+                link.out.writeInt(ClusterProtocol.INIT);
+                link.out.writeInt(firstRows[i]);
+                link.out.writeInt(stripRows[i]);
+                link.out.writeInt(cols);
+                link.out.writeUTF(rule.toString());
+                link.out.writeUTF(south != null ? south.getHostString() : "");
+                link.out.writeInt(south != null ? south.getPort() : 0);
+                link.out.writeBoolean(i > 0);
+                link.out.writeLong(session);
+                link.out.flush();
+                link.expectOk();
+            }
+        } catch (IOException | RuntimeException e) {
+            disconnect();
+            throw e;
+        }
+        generation = 0;
+        Arrays.fill(populations, 0);
+    }
+
+    /**
+     * Reconnecte les workers après une panne (une seule tentative par worker) :
+     * la grille repart vide, avec la règle courante
+     */
+    private void ensureConnected() {
+        if (!workers.isEmpty()) {
+            return;
+        }
+        try {
+            connect(1);
+        } catch (IOException | IllegalStateException e) {
+            throw new UncheckedIOException("Workers injoignables", asIOException(e));
+        }
+        System.out.println("Cluster reinitialise: grille precedente perdue");
+    }
+
+    /**
+     * Abandonne les liaisons après l'échec d'un worker : les bandes ne sont plus
+     * synchronisées entre elles, la grille est perdue
+     */
+    private UncheckedIOException lost(Exception cause) {
+        disconnect();
+        generation = 0;
+        Arrays.fill(populations, 0);
+        return new UncheckedIOException("Worker perdu, grille reinitialisee a la prochaine commande",
+                asIOException(cause));
+    }
+
+    private static IOException asIOException(Exception e) {
+        return e instanceof IOException ? (IOException) e : new IOException(e.getMessage(), e);
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public synchronized int getGeneration() {
+        return generation;
+    }
+
+    @Override
+    public synchronized int getLiveCellCount() {
+        int total = 0;
+        for (int population : populations) {
+            total += population;
+        }
+        return total;
+    }
+
+    @Override
+    public synchronized Rule getRule() {
+        return rule;
+    }
+
+    @Override
+    public synchronized void setRule(Rule rule) {
+        ensureConnected();
+        try {
+            for (Link link : workers) {
+                link.out.writeInt(ClusterProtocol.RULE);
+                link.out.writeUTF(rule.toString());
+                link.out.flush();
+            }
+            readReplies(allWorkers(), (i, link) -> { });
+            this.rule = rule;
+        } catch (IOException e) {
+            throw lost(e);
+        }
+    }
+
+    @Override
+    public void nextGeneration() {
+        advance(1);
+    }
+
+    /**
+     * Fait avancer toutes les bandes de plusieurs générations en une seule
+     * commande : les workers tournent en parallèle et se synchronisent entre
+     * eux par l'échange des rangées de bord
+     */
+    @Override
+    public synchronized void advance(int generations) {
+        ensureConnected();
+        try {
+            for (Link link : workers) {
+                link.out.writeInt(ClusterProtocol.STEP);
+                link.out.writeInt(generations);
+                link.out.flush();
+            }
+            readReplies(allWorkers(), (i, link) -> {
+                link.in.readInt();
+                populations[i] = link.in.readInt();
+            });
+            generation += generations;
+        } catch (IOException | IllegalStateException e) {
+            // Un worker qui échoue pendant l'échange des bords désynchronise toutes les bandes
+            throw lost(e);
+        }
+    }
+
+    @Override
+    public synchronized void reset() {
+        ensureConnected();
+        try {
+            for (Link link : workers) {
+                link.out.writeInt(ClusterProtocol.RESET);
+                link.out.flush();
+            }
+            readReplies(allWorkers(), (i, link) -> populations[i] = 0);
+            generation = 0;
+        } catch (IOException e) {
+            throw lost(e);
+        }
+    }
+
+    /**
+     * Chaque worker remplit sa bande comme le ferait GameOfLife sur la grille
+     * entière : une même graine donne la même grille, répartie ou non
+     */
+    @Override
+    public synchronized void randomizeGrid(long seed, double density) {
+        if (!(density >= 0.0 && density <= 1.0)) {
+            throw new IllegalArgumentException("Densite invalide: " + density);
+        }
+        ensureConnected();
+        try {
+            for (Link link : workers) {
+                link.out.writeInt(ClusterProtocol.RANDOM);
+                link.out.writeLong(seed);
+                link.out.writeDouble(density);
+                link.out.flush();
+            }
+            readReplies(allWorkers(), (i, link) -> populations[i] = link.in.readInt());
+        } catch (IOException e) {
+            throw lost(e);
+        }
+    }
+
+    /**
+     * Même pattern que GameOfLife.setInitialPattern(), centré dans la grille
+     */
+    @Override
+    public synchronized void setInitialPattern() {
+        int centerRow = rows / 2;
+        int centerCol = cols / 2;
+        setCellState(centerRow, centerCol - 1, true);
+        setCellState(centerRow, centerCol, true);
+        setCellState(centerRow, centerCol + 1, true);
+        setCellState(centerRow - 1, centerCol, true);
+        setCellState(centerRow + 1, centerCol, true);
+    }
+
+    @Override
+    public synchronized void setCellState(int row, int col, boolean alive) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            return;
+        }
+        ensureConnected();
+        int i = workerForRow(row);
+        Link link = workers.get(i);
+        try {
+            link.out.writeInt(ClusterProtocol.SET);
+            link.out.writeInt(row - firstRows[i]);
+            link.out.writeInt(col);
+            link.out.writeBoolean(alive);
+            link.out.flush();
+            link.expectOk();
+            populations[i] = link.in.readInt();
+        } catch (IOException e) {
+            throw lost(e);
+        }
+    }
+
+    /**
+     * Assemble la fenêtre à partir des seules bandes qu'elle recouvre
+     */
+    @Override
+    public synchronized boolean[][] getGridWindow(int row, int col, int height, int width) {
+        int top = Math.max(0, row);
+        int left = Math.max(0, col);
+        int bottom = Math.min(rows, row + height);
+        int right = Math.min(cols, col + width);
+        boolean[][] window = new boolean[Math.max(0, bottom - top)][Math.max(0, right - left)];
+        if (window.length == 0 || window[0].length == 0) {
+            return window;
+        }
+        ensureConnected();
+
+        try {
+            List<Integer> involved = workersForRows(top, bottom);
+            for (int i : involved) {
+                Link link = workers.get(i);
+                link.out.writeInt(ClusterProtocol.WINDOW);
+                link.out.writeInt(top - firstRows[i]);
+                link.out.writeInt(left);
+                link.out.writeInt(bottom - top);
+                link.out.writeInt(right - left);
+                link.out.flush();
+            }
+            readReplies(involved, (i, link) -> {
+                int windowRows = link.in.readInt();
+                int windowCols = link.in.readInt();
+                int offset = Math.max(top, firstRows[i]) - top;
+                for (int r = 0; r < windowRows; r++) {
+                    window[offset + r] = ClusterProtocol.readRow(link.in, windowCols);
+                }
+            });
+        } catch (IOException e) {
+            throw lost(e);
+        }
+        return window;
+    }
+
+    /**
+     * Additionne les comptes par bloc des bandes recouvertes (un bloc peut
+     * chevaucher deux bandes)
+     */
+    @Override
+    public synchronized int[][] countLiveCellsByBlock(int row, int col, int height, int width, int block) {
+        int blockRows = (Math.max(0, height) + block - 1) / block;
+        int blockCols = (Math.max(0, width) + block - 1) / block;
+        int[][] counts = new int[blockRows][blockCols];
+        if (blockRows == 0 || blockCols == 0) {
+            return counts;
+        }
+        ensureConnected();
+
+        try {
+            List<Integer> involved = workersForRows(Math.max(0, row), Math.min(rows, row + height));
+            for (int i : involved) {
+                Link link = workers.get(i);
+                link.out.writeInt(ClusterProtocol.BLOCKS);
+                link.out.writeInt(row - firstRows[i]);
+                link.out.writeInt(col);
+                link.out.writeInt(height);
+                link.out.writeInt(width);
+                link.out.writeInt(block);
+                link.out.flush();
+            }
+            readReplies(involved, (i, link) -> {
+                for (int bi = 0; bi < blockRows; bi++) {
+                    for (int bj = 0; bj < blockCols; bj++) {
+                        counts[bi][bj] += link.in.readInt();
+                    }
+                }
+            });
+        } catch (IOException e) {
+            throw lost(e);
+        }
+        return counts;
+    }
+
+    /**
+     * Lit la réponse de chacun des workers donnés avant de signaler une éventuelle
+     * erreur : un worker en échec ne doit pas laisser les réponses des autres
+     * dans leur flux, où la commande suivante les lirait à la place des siennes
+     */
+    private void readReplies(List<Integer> involved, ReplyReader reader) throws IOException {
+        IOException ioFailure = null;
+        IllegalStateException failure = null;
+        for (int i : involved) {
+            Link link = workers.get(i);
+            try {
+                link.expectOk();
+                reader.read(i, link);
+            } catch (IOException e) {
+                if (ioFailure == null) {
+                    ioFailure = e;
+                } else {
+                    ioFailure.addSuppressed(e);
+                }
+            } catch (IllegalStateException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (ioFailure != null) {
+            throw ioFailure;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Lecture du contenu d'une réponse OK d'un worker
+     */
+    private interface ReplyReader {
+        void read(int worker, Link link) throws IOException;
+    }
+
+    private List<Integer> allWorkers() {
+        return workersForRows(0, rows);
+    }
+
+    private int workerForRow(int row) {
+        int i = 0;
+        while (i + 1 < firstRows.length && firstRows[i + 1] <= row) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Workers dont la bande recoupe les lignes [top, bottom)
+     */
+    private List<Integer> workersForRows(int top, int bottom) {
+        List<Integer> involved = new ArrayList<>();
+        for (int i = 0; i < firstRows.length; i++) {
+            if (firstRows[i] < bottom && firstRows[i] + stripRows[i] > top) {
+                involved.add(i);
+            }
+        }
+        return involved;
+    }
+
+    @Override
+    public synchronized void close() {
+        disconnect();
+    }
+
+    private void disconnect() {
+        for (Link link : workers) {
+            try {
+                link.close();
+            } catch (IOException e) {
+                // Fermeture au mieux
+            }
+        }
+        workers.clear();
+    }
+}
@@ -0,0 +1,142 @@
+package com.gamelife;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.Socket;
+
+/**
+ * Protocole binaire entre le coordinateur et les workers d'une simulation
+ * répartie, et entre workers voisins pour l'échange des rangées de bord
+ */
+final class ClusterProtocol {
+    /**
+     * Premier entier envoyé sur une connexion : rôle de l'appelant. HELLO_PEER
+     * est suivi du numéro de session reçu dans INIT, que le voisin compare au sien.
+     */
+    static final int HELLO_COORDINATOR = 1;
+    static final int HELLO_PEER = 2;
+
+    /** Commandes du coordinateur vers un worker */
+    static final int INIT = 10;
+    static final int STEP = 11;
+    static final int RESET = 12;
+    static final int RANDOM = 13;
+    static final int SET = 14;
+    static final int RULE = 15;
+    static final int WINDOW = 16;
+    static final int BLOCKS = 17;
+
+    /**
+     * Statut en tête de chaque réponse (ERROR est suivi d'un message). BUSY
+     * n'est pas une réponse : un worker l'envoie régulièrement pendant une
+     * commande longue pour montrer qu'il progresse, la réponse suit.
+     */
+    static final int OK = 0;
+    static final int ERROR = 1;
+    static final int BUSY = 2;
+
+    /**
+     * Délai de lecture maximal d'une liaison : un pair qui ne répond plus
+     * provoque une erreur au lieu d'un blocage définitif
+     */
+    static final int READ_TIMEOUT_MILLIS = 60_000;
+
+    /** Intervalle des BUSY envoyés pendant une commande longue */
+    static final long HEARTBEAT_NANOS = READ_TIMEOUT_MILLIS / 4 * 1_000_000L;
+
+    private ClusterProtocol() {
+    }
+
+    /**
+     * Envoie une rangée de cellules compactée à raison de 64 cellules par long
+     */
+    static void writeRow(DataOutputStream out, boolean[] row) throws IOException {
+        for (int j = 0; j < row.length; j += 64) {
+            long word = 0;
+            int end = Math.min(j + 64, row.length);
+            for (int k = end - 1; k >= j; k--) {
+                word = (word << 1) | (row[k] ? 1 : 0);
+            }
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * Lit une rangée de cellules envoyée par writeRow
+     */
+    static boolean[] readRow(DataInputStream in, int length) throws IOException {
+        boolean[] row = new boolean[length];
+        for (int j = 0; j < length; j += 64) {
+            long word = in.readLong();
+            int end = Math.min(j + 64, length);
+            for (int k = j; k < end; k++) {
+                row[k] = (word & 1) != 0;
+                word >>>= 1;
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Connexion TCP avec flux de données tamponnés
+     */
+    static final class Link implements Closeable {
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+
+        Link(Socket socket) throws IOException {
+            this.socket = socket;
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        /**
+         * Se connecte en réessayant une fois par seconde tant que le pair
+         * n'écoute pas encore (démarrage simultané des conteneurs)
+         */
+        static Link connect(String host, int port, int attempts) throws IOException {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return new Link(new Socket(host, port));
+                } catch (ConnectException e) {
+                    if (attempt >= attempts) {
+                        throw e;
+                    }
+                    try {
+                        Thread.sleep(1000);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Lit le statut d'une réponse et lève une exception si le pair a échoué
+         */
+        void expectOk() throws IOException {
+            int status = in.readInt();
+            while (status == BUSY) {
+                status = in.readInt();
+            }
+            if (status != OK) {
+                throw new IllegalStateException("Erreur du worker " + socket.getRemoteSocketAddress()
+                        + ": " + in.readUTF());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.gamelife;
+
+import com.gamelife.ClusterProtocol.Link;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker d'une simulation répartie : détient une bande horizontale de la
+ * grille et échange à chaque génération uniquement ses rangées de bord avec
+ * les workers voisins (nord et sud), sur commande du coordinateur
+ */
+public class ClusterWorker {
+    /** Délai d'attente de la connexion du voisin nord lors de l'initialisation */
+    private static final long NORTH_TIMEOUT_SECONDS = 30;
+
+    private final int port;
+    private final BlockingQueue<Link> northLinks = new LinkedBlockingQueue<>();
+    private final ExecutorService haloSender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "halo-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private GameOfLife strip;
+    private int firstRow;
+    private Link north;
+    private Link south;
+
+    /** Connexion du coordinateur qui a établi les liaisons avec les voisins */
+    private Link owner;
+
+    public ClusterWorker(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Accepte les connexions du coordinateur et du voisin nord (bloquant)
+     */
+    public void run() throws IOException {
+        try (ServerSocket server = new ServerSocket(port)) {
+            System.out.println("Worker en attente sur le port " + port);
+            while (true) {
+                Socket socket = server.accept();
+                Thread handler = new Thread(() -> handleConnection(socket));
+                handler.setDaemon(true);
+                handler.start();
+            }
+        }
+    }
+
+    private void handleConnection(Socket socket) {
+        try {
+            Link link = new Link(socket);
+            int role = link.in.readInt();
+            if (role == ClusterProtocol.HELLO_PEER) {
+                northLinks.put(link);
+            } else if (role == ClusterProtocol.HELLO_COORDINATOR) {
+                try {
+                    serveCoordinator(link);
+                } finally {
+                    // Le coordinateur voit la connexion se fermer au lieu d'attendre
+                    // indéfiniment une réponse ; les voisins, bloqués dans l'échange
+                    // des bords, échouent à leur tour
+                    link.close();
+                    disconnectNeighbors(link);
+                }
+            } else {
+                link.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Connexion interrompue: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Exécute les commandes du coordinateur jusqu'à sa déconnexion
+     */
+    private void serveCoordinator(Link link) throws IOException {
+        System.out.println("Coordinateur connecte: " + link.socket.getRemoteSocketAddress());
+        while (true) {
+            int command;
+            try {
+                command = link.in.readInt();
+            } catch (SocketTimeoutException e) {
+                // Coordinateur inactif : le délai ne concerne que les réponses attendues
+                continue;
+            } catch (EOFException e) {
+                System.out.println("Coordinateur deconnecte.");
+                return;
+            }
+
+            try {
+                handleCommand(command, link);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                link.out.writeInt(ClusterProtocol.ERROR);
+                link.out.writeUTF(String.valueOf(e.getMessage()));
+            } catch (IOException e) {
+                // Échec de l'échange avec un voisin : on le signale avant de fermer
+                // la connexion (sans effet si c'est elle qui est rompue)
+                link.out.writeInt(ClusterProtocol.ERROR);
+                link.out.writeUTF("Echange avec un voisin interrompu: " + e);
+                link.out.flush();
+                throw e;
+            }
+            link.out.flush();
+        }
+    }
+
+    /**
+     * Lit les paramètres d'une commande, l'exécute puis écrit la réponse
+     */
+    private synchronized void handleCommand(int command, Link link) throws IOException {
+        switch (command) {
+            case ClusterProtocol.INIT: {
+                // Tous les champs sont lus avant validation : une règle invalide
+                // ne doit pas laisser le reste de la commande dans le flux
+                int first = link.in.readInt();
+                int rows = link.in.readInt();
+                int cols = link.in.readInt();
+                String rule = link.in.readUTF();
+                String southHost = link.in.readUTF();
+                int southPort = link.in.readInt();
+                boolean hasNorth = link.in.readBoolean();
+                long session = link.in.readLong();
+                init(first, rows, cols, Rule.parse(rule), southHost, southPort, hasNorth, session);
+                this.owner = link;
+                link.out.writeInt(ClusterProtocol.OK);
+                break;
+            }
+            case ClusterProtocol.STEP: {
+                int generations = link.in.readInt();
+                requireStrip();
+                long lastHeartbeat = System.nanoTime();
+                for (int g = 0; g < generations; g++) {
+                    step();
+                    if (System.nanoTime() - lastHeartbeat > ClusterProtocol.HEARTBEAT_NANOS) {
+                        link.out.writeInt(ClusterProtocol.BUSY);
+                        link.out.flush();
+                        lastHeartbeat = System.nanoTime();
+                    }
+                }
+                link.out.writeInt(ClusterProtocol.OK);
+                link.out.writeInt(strip.getGeneration());
+                link.out.writeInt(strip.getLiveCellCount());
+                break;
+            }
+            case ClusterProtocol.RESET: {
+                requireStrip().reset();
+                link.out.writeInt(ClusterProtocol.OK);
+                break;
+            }
+            case ClusterProtocol.RANDOM: {
+                long seed = link.in.readLong();
+                double density = link.in.readDouble();
+                requireStrip().randomizeGrid(seed, density, firstRow);
+                link.out.writeInt(ClusterProtocol.OK);
+                link.out.writeInt(strip.getLiveCellCount());
+                break;
+            }
+            case ClusterProtocol.SET: {
+                int row = link.in.readInt();
+                int col = link.in.readInt();
+                boolean alive = link.in.readBoolean();
+                requireStrip().setCellState(row, col, alive);
+                link.out.writeInt(ClusterProtocol.OK);
+                link.out.writeInt(strip.getLiveCellCount());
+                break;
+            }
+            case ClusterProtocol.RULE: {
+                Rule rule = Rule.parse(link.in.readUTF());
+                requireStrip().setRule(rule);
+                link.out.writeInt(ClusterProtocol.OK);
+                break;
+            }
+            case ClusterProtocol.WINDOW: {
+                int row = link.in.readInt();
+                int col = link.in.readInt();
+                int height = link.in.readInt();
+                int width = link.in.readInt();
+                boolean[][] window = requireStrip().getGridWindow(row, col, height, width);
+                link.out.writeInt(ClusterProtocol.OK);
+                link.out.writeInt(window.length);
+                link.out.writeInt(window.length > 0 ? window[0].length : 0);
+                for (boolean[] cells : window) {
+                    ClusterProtocol.writeRow(link.out, cells);
+                }
+                break;
+            }
+            case ClusterProtocol.BLOCKS: {
+                int row = link.in.readInt();
+                int col = link.in.readInt();
+                int height = link.in.readInt();
+                int width = link.in.readInt();
+                int block = link.in.readInt();
+                int[][] counts = requireStrip().countLiveCellsByBlock(row, col, height, width, block);
+                link.out.writeInt(ClusterProtocol.OK);
+                for (int[] line : counts) {
+                    for (int count : line) {
+                        link.out.writeInt(count);
+                    }
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Commande inconnue: " + command);
+        }
+    }
+
+    /**
+     * Crée la bande de grille et établit les liaisons avec les voisins :
+     * chaque worker se connecte à son voisin sud et attend celui du nord.
+     * Le voisin s'annonce avec le numéro de session de l'initialisation, ce qui
+     * écarte les connexions laissées en attente par une initialisation abandonnée.
+     */
+    private void init(int first, int rows, int cols, Rule rule, String southHost,
+                      int southPort, boolean hasNorth, long session) throws IOException {
+        closeNeighbors();
+        this.owner = null;
+        this.strip = null;
+        GameOfLife created = new GameOfLife(rows, cols, rule);
+
+        if (!southHost.isEmpty()) {
+            south = Link.connect(southHost, southPort, 30);
+            south.out.writeInt(ClusterProtocol.HELLO_PEER);
+            south.out.writeLong(session);
+            south.out.flush();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(NORTH_TIMEOUT_SECONDS);
+        while (hasNorth && north == null) {
+            Link candidate = null;
+            try {
+                candidate = northLinks.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (candidate == null) {
+                throw new IllegalStateException("Voisin nord absent");
+            }
+            if (candidate.in.readLong() == session) {
+                north = candidate;
+            } else {
+                candidate.close();
+            }
+        }
+
+        this.strip = created;
+        this.firstRow = first;
+
+        System.out.println("Bande initialisee: lignes " + first + "-" + (first + rows - 1)
+                + ", " + cols + " colonnes, regle " + rule);
+    }
+
+    /**
+     * Une génération : envoi des rangées de bord aux voisins (sur un thread
+     * dédié, pour ne jamais bloquer si les deux côtés écrivent en même temps),
+     * réception des rangées voisines puis calcul de la bande
+     */
+    private void step() throws IOException {
+        int rows = strip.getRows();
+        int cols = strip.getCols();
+        boolean[] top = strip.getGridWindow(0, 0, 1, cols)[0];
+        boolean[] bottom = strip.getGridWindow(rows - 1, 0, 1, cols)[0];
+
+        Future<Void> sent = haloSender.submit(() -> {
+            if (north != null) {
+                ClusterProtocol.writeRow(north.out, top);
+                north.out.flush();
+            }
+            if (south != null) {
+                ClusterProtocol.writeRow(south.out, bottom);
+                south.out.flush();
+            }
+            return null;
+        });
+
+        boolean[] northHalo = north != null ? ClusterProtocol.readRow(north.in, cols) : null;
+        boolean[] southHalo = south != null ? ClusterProtocol.readRow(south.in, cols) : null;
+
+        try {
+            sent.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Echec de l'envoi des rangees de bord", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Echange des rangees de bord interrompu", e);
+        }
+
+        strip.nextGeneration(northHalo, southHalo);
+    }
+
+    private GameOfLife requireStrip() {
+        if (strip == null) {
+            throw new IllegalStateException("Worker non initialise");
+        }
+        return strip;
+    }
+
+    /**
+     * Ferme les liaisons avec les voisins après la perte du coordinateur qui les
+     * a établies : la bande n'est plus synchronisée avec eux, il faut une nouvelle
+     * initialisation. Sans effet si un autre coordinateur a déjà réinitialisé le worker.
+     */
+    private synchronized void disconnectNeighbors(Link coordinator) {
+        if (owner != coordinator) {
+            return;
+        }
+        owner = null;
+        try {
+            closeNeighbors();
+        } catch (IOException e) {
+            // Fermeture au mieux
+        }
+    }
+
+    private void closeNeighbors() throws IOException {
+        if (north != null) {
+            north.close();
+            north = null;
+        }
+        if (south != null) {
+            south.close();
+            south = null;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.gamelife;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Rendu console de la grille : chaque image est construite dans un tampon
+ * réutilisé puis écrite en une seule fois. Avec un terminal ANSI, seules les
+ * cellules modifiées depuis l'image précédente sont redessinées en déplaçant
+ * le curseur, ce qui reste rapide sur de grandes grilles (même via SSH).
+ * Une grille qui ne tient pas dans le terminal est réécrite en entier à chaque
+ * image : les positions absolues du curseur n'y désigneraient plus les bonnes cellules.
+ */
+public class ConsoleRenderer {
+    private static final String ESC = "\u001b[";
+
+    /** Au-delà de cette proportion de cellules modifiées, on réécrit la grille entière */
+    private static final double FULL_REDRAW_RATIO = 0.3;
+
+    /** Taille supposée quand celle du terminal est inconnue */
+    private static final int DEFAULT_LINES = 24;
+    private static final int DEFAULT_COLUMNS = 80;
+
+    private final PrintStream out;
+    private final boolean ansi;
+    private final int lines;
+    private final int columns;
+    private final StringBuilder frame = new StringBuilder();
+
+    /** Grille de l'image courante et de la précédente (un octet par cellule), réutilisées */
+    private byte[] current = new byte[0];
+    private byte[] previous = new byte[0];
+    private int previousRows = -1;
+    private int previousCols = -1;
+
+    /**
+     * @param lines   hauteur du terminal en lignes
+     * @param columns largeur du terminal en colonnes
+     */
+    public ConsoleRenderer(PrintStream out, boolean ansi, int lines, int columns) {
+        this.out = out;
+        this.ansi = ansi;
+        this.lines = lines;
+        this.columns = columns;
+    }
+
+    /**
+     * Crée un rendu sur la sortie standard, en ANSI sauf sur un terminal "dumb",
+     * à la taille actuelle du terminal
+     */
+    public static ConsoleRenderer forStandardOutput() {
+        String term = System.getenv("TERM");
+        int[] size = terminalSize();
+        return new ConsoleRenderer(System.out, term != null && !"dumb".equals(term), size[0], size[1]);
+    }
+
+    /**
+     * Taille du terminal {lignes, colonnes} : variables LINES et COLUMNS si
+     * elles sont exportées, sinon "stty size" sur le terminal, sinon 24x80
+     */
+    static int[] terminalSize() {
+        try {
+            return new int[] {Integer.parseInt(System.getenv("LINES")), Integer.parseInt(System.getenv("COLUMNS"))};
+        } catch (NumberFormatException e) {
+            // Variables absentes (rarement exportées par le shell)
+        }
+        File tty = new File("/dev/tty");
+        if (tty.exists()) {
+            try {
+                Process stty = new ProcessBuilder("stty", "size")
+                        .redirectInput(tty)
+                        .redirectError(ProcessBuilder.Redirect.DISCARD)
+                        .start();
+                String output;
+                try (InputStream in = stty.getInputStream()) {
+                    output = new String(in.readAllBytes(), StandardCharsets.US_ASCII).trim();
+                }
+                if (stty.waitFor() == 0) {
+                    String[] parts = output.split("\\s+");
+                    return new int[] {Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+                }
+            } catch (IOException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                // Pas de stty ou sortie inattendue : taille par défaut
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return new int[] {DEFAULT_LINES, DEFAULT_COLUMNS};
+    }
+
+    /**
+     * Oublie l'image précédente : la prochaine sera dessinée en entier
+     */
+    public void reset() {
+        previousRows = -1;
+        previousCols = -1;
+    }
+
+    /**
+     * Affiche la génération courante suivie d'une ligne d'état
+     */
+    public void render(GameOfLife game, String status) {
+        int rows = game.getRows();
+        int cols = game.getCols();
+        if (current.length != rows * cols) {
+            current = new byte[rows * cols];
+            previous = new byte[rows * cols];
+            reset();
+        }
+        int generation;
+        synchronized (game) {
+            game.copyCells(current);
+            generation = game.getGeneration();
+        }
+        frame.setLength(0);
+
+        // En-tête, grille et ligne d'état doivent tenir dans le terminal sans retour à la ligne
+        boolean fits = rows + 3 <= lines && 2 * cols + 2 <= columns;
+        if (!ansi || !fits) {
+            appendFullFrame(rows, cols, generation);
+            frame.append(status).append('\n');
+            reset();
+        } else {
+            if (previousRows != rows || previousCols != cols) {
+                // Première image : effacer l'écran et tout dessiner
+                frame.append(ESC).append("2J").append(ESC).append("H");
+                appendFullFrame(rows, cols, generation);
+            } else {
+                appendHeader(generation);
+                appendChanges(rows, cols);
+            }
+            moveTo(rows + 3, 1);
+            frame.append(status).append(ESC).append("K\n");
+            previousRows = rows;
+            previousCols = cols;
+        }
+
+        out.print(frame);
+        out.flush();
+        byte[] swap = previous;
+        previous = current;
+        current = swap;
+    }
+
+    /**
+     * Grille complète, au même format que GameOfLife.display()
+     */
+    private void appendFullFrame(int rows, int cols, int generation) {
+        frame.append("=== Generation ").append(generation).append(" ===\n");
+        frame.append("  ");
+        for (int j = 0; j < cols; j++) {
+            frame.append(j % 10).append(' ');
+        }
+        frame.append('\n');
+
+        for (int i = 0; i < rows; i++) {
+            appendRow(i, cols);
+        }
+    }
+
+    private void appendRow(int row, int cols) {
+        frame.append(row % 10).append(' ');
+        for (int j = 0, k = row * cols; j < cols; j++, k++) {
+            frame.append(cellSymbol(current[k])).append(' ');
+        }
+        frame.append('\n');
+    }
+
+    private void appendHeader(int generation) {
+        moveTo(1, 1);
+        frame.append("=== Generation ").append(generation).append(" ===").append(ESC).append("K");
+    }
+
+    /**
+     * Redessine uniquement les cellules modifiées, comptées au fil du parcours ;
+     * dès qu'elles sont trop nombreuses pour que les déplacements soient
+     * rentables, ce qui a été écrit est abandonné au profit de toutes les lignes
+     */
+    private void appendChanges(int rows, int cols) {
+        int limit = (int) (FULL_REDRAW_RATIO * rows * cols);
+        int mark = frame.length();
+        int changes = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0, k = i * cols; j < cols; j++, k++) {
+                if (current[k] != previous[k]) {
+                    if (++changes > limit) {
+                        frame.setLength(mark);
+                        moveTo(3, 1);
+                        for (int row = 0; row < rows; row++) {
+                            appendRow(row, cols);
+                        }
+                        return;
+                    }
+                    // Ligne 3 + i, colonne 3 + 2j (préfixe "i " puis "x " par cellule)
+                    moveTo(i + 3, 2 * j + 3);
+                    frame.append(cellSymbol(current[k]));
+                }
+            }
+        }
+    }
+
+    private void moveTo(int line, int column) {
+        frame.append(ESC).append(line).append(';').append(column).append('H');
+    }
+
+    private static String cellSymbol(byte cell) {
+        return cell != 0 ? "█" : "░";
+    }
+}
@@ -0,0 +1,45 @@
+package com.gamelife;
+
+/**
+ * Opérations d'une partie exposées par l'API web, qu'elle soit calculée
+ * localement (GameOfLife) ou répartie sur plusieurs processus (ClusterCoordinator)
+ */
+public interface Game {
+    int getRows();
+
+    int getCols();
+
+    int getGeneration();
+
+    int getLiveCellCount();
+
+    Rule getRule();
+
+    void setRule(Rule rule);
+
+    void nextGeneration();
+
+    /**
+     * Avance de plusieurs générations d'un coup
+     */
+    void advance(int generations);
+
+    void reset();
+
+    void randomizeGrid(long seed, double density);
+
+    void setInitialPattern();
+
+    void setCellState(int row, int col, boolean alive);
+
+    /**
+     * Copie d'une fenêtre rectangulaire, bornée aux limites de la grille
+     */
+    boolean[][] getGridWindow(int row, int col, int height, int width);
+
+    /**
+     * Nombre de cellules vivantes de chaque bloc block x block de la fenêtre
+     * (les blocs du bord droit et du bas peuvent être plus petits)
+     */
+    int[][] countLiveCellsByBlock(int row, int col, int height, int width, int block);
+}
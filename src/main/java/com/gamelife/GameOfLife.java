@@ -1,200 +1,427 @@
 package com.gamelife;
 
-import java.util.Random;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 
 /**
  * Implémentation du Jeu de la Vie de Conway
- * Grille 5x5 comme spécifié dans les exigences
+ * Grille 5x5 par défaut comme spécifié dans les exigences.
+ * Les méthodes qui lisent ou modifient la grille sont synchronisées : le
+ * serveur web y accède depuis plusieurs threads, et les grilles échangées à
+ * chaque génération seraient corrompues par deux calculs simultanés.
  */
-public class GameOfLife {
-    private static final int GRID_SIZE = 5;
-    private Cell[][] grid;
+public class GameOfLife implements Game {
+    public static final int DEFAULT_GRID_SIZE = 5;
+    public static final double DEFAULT_DENSITY = 0.5;
+    
+    /** Précision de la densité du remplissage aléatoire (en bits, soit 1/256) */
+    private static final int DENSITY_BITS = 8;
+    
+    /** Nombre de cellules à partir duquel le remplissage et le calcul sont parallélisés */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    
+    private final int rows;
+    private final int cols;
+    
+    /**
+     * Un octet par cellule (1 = vivante), ligne par ligne, encadré d'une ligne
+     * de bord au nord et au sud : la cellule (i, j) est à l'indice (i + 1) * cols + j.
+     * Les lignes de bord sont mortes, sauf pendant un calcul en mode réparti où
+     * elles reçoivent les rangées des bandes voisines.
+     */
+    private byte[] cells;
+    private byte[] nextCells;
     private int generation;
+    private Rule rule;
+    
+    /** Nombre de cellules vivantes, recompté à la demande (-1 = inconnu) */
+    private int population;
     
     public GameOfLife() {
-        this.grid = new Cell[GRID_SIZE][GRID_SIZE];
+        this(Rule.CONWAY);
+    }
+    
+    public GameOfLife(Rule rule) {
+        this(DEFAULT_GRID_SIZE, DEFAULT_GRID_SIZE, rule);
+    }
+    
+    public GameOfLife(int size) {
+        this(size, size, Rule.CONWAY);
+    }
+    
+    public GameOfLife(int rows, int cols, Rule rule) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Dimensions invalides: " + rows + "x" + cols);
+        }
+        if ((long) (rows + 2) * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grille trop grande: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = new byte[(rows + 2) * cols];
+        this.nextCells = new byte[(rows + 2) * cols];
         this.generation = 0;
-        initializeGrid();
+        this.rule = rule;
+        this.population = 0;
+    }
+    
+    private int index(int row, int col) {
+        return (row + 1) * cols + col;
+    }
+    
+    /**
+     * Initialise la grille avec un pattern aléatoire
+     */
+    public synchronized void randomizeGrid() {
+        randomizeGrid(new SplittableRandom().nextLong(), DEFAULT_DENSITY);
     }
     
     /**
-     * Initialise la grille avec des cellules mortes
+     * Initialise la grille avec un pattern aléatoire reproductible
      */
-    private void initializeGrid() {
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                grid[i][j] = new Cell(false);
+    public synchronized void randomizeGrid(long seed) {
+        randomizeGrid(seed, DEFAULT_DENSITY);
+    }
+    
+    /**
+     * Initialise la grille avec un pattern aléatoire reproductible où chaque
+     * cellule est vivante avec la probabilité density (arrondie à 1/256).
+     * Chaque ligne reçoit son propre générateur, dérivé de la graine dans
+     * l'ordre des lignes : le résultat ne dépend donc pas du parallélisme.
+     */
+    @Override
+    public synchronized void randomizeGrid(long seed, double density) {
+        randomizeGrid(seed, density, 0);
+    }
+    
+    /**
+     * Remplit cette grille comme les lignes [firstRow, firstRow + rows) d'une
+     * grande grille remplie avec la même graine (utilisé par les workers d'une
+     * simulation répartie, qui ne détiennent qu'une bande de lignes)
+     */
+    synchronized void randomizeGrid(long seed, double density, int firstRow) {
+        if (!(density >= 0.0 && density <= 1.0)) {
+            throw new IllegalArgumentException("Densite invalide: " + density);
+        }
+        
+        int threshold = (int) Math.round(density * (1 << DENSITY_BITS));
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int i = 0; i < firstRow; i++) {
+            root.split();
+        }
+        SplittableRandom[] rowRandoms = new SplittableRandom[rows];
+        for (int i = 0; i < rows; i++) {
+            rowRandoms[i] = root.split();
+        }
+        
+        IntStream rowIndexes = IntStream.range(0, rows);
+        if ((long) rows * cols >= PARALLEL_THRESHOLD) {
+            rowIndexes = rowIndexes.parallel();
+        }
+        this.population = rowIndexes.map(i -> fillRow(i, rowRandoms[i], threshold)).sum();
+    }
+    
+    /**
+     * Remplit une ligne par paquets de 64 cellules par mot aléatoire
+     * et retourne le nombre de cellules vivantes de la ligne
+     */
+    private int fillRow(int row, SplittableRandom random, int threshold) {
+        int live = 0;
+        for (int j = 0; j < cols; j += 64) {
+            long bits = randomBits(random, threshold);
+            int end = Math.min(j + 64, cols);
+            if (end - j < 64) {
+                bits &= (1L << (end - j)) - 1;
+            }
+            live += Long.bitCount(bits);
+            int offset = index(row, 0);
+            for (int k = j; k < end; k++) {
+                cells[offset + k] = (byte) (bits & 1);
+                bits >>>= 1;
             }
         }
+        return live;
     }
     
     /**
-     * Initialise la grille avec un pattern aléatoire
+     * Tire 64 bits indépendants valant 1 avec la probabilité threshold/256.
+     * Les bits de la probabilité sont parcourus du poids faible au poids fort :
+     * un 1 combine le mot courant avec un mot aléatoire par OU, un 0 par ET.
+     * Une densité de 0.5 ne coûte donc qu'un seul nextLong() pour 64 cellules,
+     * et au plus 8 dans le cas général.
      */
-    public void randomizeGrid() {
-        Random random = new Random();
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                grid[i][j].setAlive(random.nextBoolean());
+    private static long randomBits(SplittableRandom random, int threshold) {
+        if (threshold <= 0) {
+            return 0L;
+        }
+        if (threshold >= 1 << DENSITY_BITS) {
+            return -1L;
+        }
+        
+        int shift = Integer.numberOfTrailingZeros(threshold);
+        long bits = 0L;
+        for (int bit = shift; bit < DENSITY_BITS; bit++) {
+            if ((threshold >> bit & 1) != 0) {
+                bits |= random.nextLong();
+            } else {
+                bits &= random.nextLong();
             }
         }
+        return bits;
     }
     
     /**
-     * Définit un pattern initial prédéfini (ex: glider pattern adapté à 5x5)
+     * Définit un pattern initial prédéfini, centré dans la grille
+     * (ex: glider pattern adapté à 5x5)
      */
-    public void setInitialPattern() {
+    @Override
+    public synchronized void setInitialPattern() {
+        int centerRow = rows / 2;
+        int centerCol = cols / 2;
+        
         // Pattern "Blinker" adapté
-        grid[2][1].setAlive(true);
-        grid[2][2].setAlive(true);
-        grid[2][3].setAlive(true);
+        setCellState(centerRow, centerCol - 1, true);
+        setCellState(centerRow, centerCol, true);
+        setCellState(centerRow, centerCol + 1, true);
         
         // Quelques cellules additionnelles pour rendre intéressant
-        grid[1][2].setAlive(true);
-        grid[3][2].setAlive(true);
+        setCellState(centerRow - 1, centerCol, true);
+        setCellState(centerRow + 1, centerCol, true);
     }
     
     /**
-     * Compte le nombre de voisins vivants pour une cellule donnée
+     * Calcule la prochaine génération selon la règle courante
      */
-    private int countLiveNeighbors(int row, int col) {
-        int count = 0;
+    @Override
+    public synchronized void nextGeneration() {
+        nextGeneration(null, null);
+    }
+    
+    /**
+     * Calcule la prochaine génération en considérant que la grille est
+     * bordée au nord et au sud par les rangées données (null = cellules mortes)
+     */
+    public synchronized void nextGeneration(boolean[] northHalo, boolean[] southHalo) {
+        loadHalo(northHalo, 0);
+        loadHalo(southHalo, (rows + 1) * cols);
+        
+        // Fenêtre glissante 3x3 sur les octets, état suivant lu dans la table de la règle
+        TiledStepper.sweepRows(cells, nextCells, rows + 2, cols, 1, rows + 1, rule,
+                (long) rows * cols >= PARALLEL_THRESHOLD);
         
-        // Vérifier les 8 directions autour de la cellule
-        for (int i = -1; i <= 1; i++) {
-            for (int j = -1; j <= 1; j++) {
-                if (i == 0 && j == 0) continue; // Skip la cellule elle-même
-                
-                int newRow = row + i;
-                int newCol = col + j;
-                
-                // Vérifier les limites de la grille
-                if (newRow >= 0 && newRow < GRID_SIZE && 
-                    newCol >= 0 && newCol < GRID_SIZE) {
-                    if (grid[newRow][newCol].isAlive()) {
-                        count++;
-                    }
-                }
+        // Les lignes de bord redeviennent mortes, puis on échange les deux grilles
+        // plutôt que d'en allouer une nouvelle
+        Arrays.fill(cells, 0, cols, (byte) 0);
+        Arrays.fill(cells, (rows + 1) * cols, (rows + 2) * cols, (byte) 0);
+        byte[] previous = this.cells;
+        this.cells = nextCells;
+        this.nextCells = previous;
+        this.generation++;
+        this.population = -1;
+    }
+    
+    private void loadHalo(boolean[] halo, int offset) {
+        if (halo != null) {
+            for (int j = 0; j < cols; j++) {
+                cells[offset + j] = halo[j] ? (byte) 1 : (byte) 0;
             }
         }
-        
-        return count;
     }
     
     /**
-     * Calcule la prochaine génération selon les règles du Jeu de la Vie
+     * Avance de plusieurs générations en un seul appel. Le blocage temporel de
+     * TiledStepper n'est pas utilisé : mesuré par le mode bench, il est plus
+     * lent que ce balayage d'octets.
      */
-    public void nextGeneration() {
-        Cell[][] newGrid = new Cell[GRID_SIZE][GRID_SIZE];
-        
-        // Créer la nouvelle grille basée sur les règles
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                int liveNeighbors = countLiveNeighbors(i, j);
-                boolean currentlyAlive = grid[i][j].isAlive();
-                
-                newGrid[i][j] = new Cell();
-                
-                // Appliquer les règles du Jeu de la Vie
-                if (currentlyAlive) {
-                    // Cellule vivante : survit avec 2 ou 3 voisins
-                    if (liveNeighbors == 2 || liveNeighbors == 3) {
-                        newGrid[i][j].setAlive(true);
-                    }
-                } else {
-                    // Cellule morte : naît avec exactement 3 voisins
-                    if (liveNeighbors == 3) {
-                        newGrid[i][j].setAlive(true);
-                    }
-                }
-            }
+    @Override
+    public synchronized void advance(int generations) {
+        for (int g = 0; g < generations; g++) {
+            nextGeneration();
         }
-        
-        // Remplacer l'ancienne grille par la nouvelle
-        this.grid = newGrid;
-        this.generation++;
     }
     
     /**
      * Affiche la grille actuelle en console
      */
-    public void display() {
-        System.out.println("=== Generation " + generation + " ===");
-        System.out.println("  0 1 2 3 4");
+    public synchronized void display() {
+        // Construire l'image complète puis l'écrire en une seule fois
+        StringBuilder frame = new StringBuilder((rows + 3) * (cols + 1) * 2);
+        frame.append("=== Generation ").append(generation).append(" ===\n");
+        frame.append("  ");
+        for (int j = 0; j < cols; j++) {
+            frame.append(j % 10).append(' ');
+        }
+        frame.append('\n');
         
-        for (int i = 0; i < GRID_SIZE; i++) {
-            System.out.print(i + " ");
-            for (int j = 0; j < GRID_SIZE; j++) {
-                System.out.print(grid[i][j] + " ");
+        for (int i = 0; i < rows; i++) {
+            frame.append(i % 10).append(' ');
+            for (int j = 0; j < cols; j++) {
+                frame.append(cells[index(i, j)] != 0 ? "█" : "░").append(' ');
             }
-            System.out.println();
+            frame.append('\n');
         }
-        System.out.println();
+        frame.append('\n');
+        System.out.print(frame);
     }
     
     /**
      * Vérifie si la grille est vide (toutes cellules mortes)
      */
-    public boolean isEmpty() {
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                if (grid[i][j].isAlive()) {
-                    return false;
-                }
+    public synchronized boolean isEmpty() {
+        return getLiveCellCount() == 0;
+    }
+    
+    /**
+     * Compte le nombre total de cellules vivantes (recompté au plus une fois par génération)
+     */
+    @Override
+    public synchronized int getLiveCellCount() {
+        if (population < 0) {
+            population = countLiveCells(0, 0, rows, cols);
+        }
+        return population;
+    }
+    
+    /**
+     * Compte les cellules vivantes d'un rectangle (borné à la grille),
+     * en un temps proportionnel à sa surface
+     */
+    public synchronized int countLiveCells(int row, int col, int height, int width) {
+        int top = Math.max(0, row);
+        int left = Math.max(0, col);
+        int bottom = Math.min(rows, row + height);
+        int right = Math.min(cols, col + width);
+        
+        int live = 0;
+        for (int i = top; i < bottom; i++) {
+            for (int k = index(i, left), end = index(i, Math.max(left, right)); k < end; k++) {
+                live += cells[k];
             }
         }
-        return true;
+        return live;
     }
     
     /**
-     * Compte le nombre total de cellules vivantes
+     * Compte les cellules vivantes de chaque bloc d'une fenêtre (aperçu de l'API web)
+     * en un seul parcours de la fenêtre : le coût dépend de la fenêtre demandée,
+     * jamais de la taille de la grille, et rien n'est calculé pendant les générations
      */
-    public int getLiveCellCount() {
-        int count = 0;
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                if (grid[i][j].isAlive()) {
-                    count++;
-                }
+    @Override
+    public synchronized int[][] countLiveCellsByBlock(int row, int col, int height, int width, int block) {
+        int blockRows = (Math.max(0, height) + block - 1) / block;
+        int blockCols = (Math.max(0, width) + block - 1) / block;
+        int[][] counts = new int[blockRows][blockCols];
+        
+        int top = Math.max(0, row);
+        int left = Math.max(0, col);
+        int bottom = Math.min(rows, row + height);
+        int right = Math.min(cols, col + width);
+        for (int i = top; i < bottom; i++) {
+            int[] line = counts[(i - row) / block];
+            int offset = index(i, 0);
+            for (int j = left; j < right; j++) {
+                line[(j - col) / block] += cells[offset + j];
             }
         }
-        return count;
+        return counts;
+    }
+    
+    /**
+     * Copie la grille dans target, un octet par cellule (1 = vivante), ligne par ligne
+     */
+    synchronized void copyCells(byte[] target) {
+        System.arraycopy(cells, cols, target, 0, rows * cols);
+    }
+    
+    /**
+     * Retourne le nombre de lignes de la grille
+     */
+    @Override
+    public int getRows() {
+        return rows;
+    }
+    
+    /**
+     * Retourne le nombre de colonnes de la grille
+     */
+    @Override
+    public int getCols() {
+        return cols;
     }
     
     /**
      * Retourne la génération actuelle
      */
-    public int getGeneration() {
+    @Override
+    public synchronized int getGeneration() {
         return generation;
     }
     
+    /**
+     * Retourne la règle utilisée par ce jeu
+     */
+    @Override
+    public synchronized Rule getRule() {
+        return rule;
+    }
+    
+    /**
+     * Change la règle de transition (B/S) du jeu
+     */
+    @Override
+    public synchronized void setRule(Rule rule) {
+        this.rule = rule;
+    }
+    
     /**
      * Retourne une copie de la grille pour l'API web
      */
-    public boolean[][] getGridState() {
-        boolean[][] state = new boolean[GRID_SIZE][GRID_SIZE];
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                state[i][j] = grid[i][j].isAlive();
+    public synchronized boolean[][] getGridState() {
+        return getGridWindow(0, 0, rows, cols);
+    }
+    
+    /**
+     * Retourne une copie d'une fenêtre rectangulaire de la grille,
+     * bornée aux limites de la grille (coût proportionnel à la fenêtre)
+     */
+    @Override
+    public synchronized boolean[][] getGridWindow(int row, int col, int height, int width) {
+        int top = Math.max(0, row);
+        int left = Math.max(0, col);
+        int bottom = Math.min(rows, row + height);
+        int right = Math.min(cols, col + width);
+        
+        boolean[][] window = new boolean[Math.max(0, bottom - top)][Math.max(0, right - left)];
+        for (int i = top; i < bottom; i++) {
+            for (int j = left; j < right; j++) {
+                window[i - top][j - left] = cells[index(i, j)] != 0;
             }
         }
-        return state;
+        return window;
     }
     
     /**
      * Définit l'état d'une cellule spécifique
      */
-    public void setCellState(int row, int col, boolean alive) {
-        if (row >= 0 && row < GRID_SIZE && col >= 0 && col < GRID_SIZE) {
-            grid[row][col].setAlive(alive);
+    @Override
+    public synchronized void setCellState(int row, int col, boolean alive) {
+        if (row >= 0 && row < rows && col >= 0 && col < cols
+                && (cells[index(row, col)] != 0) != alive) {
+            cells[index(row, col)] = alive ? (byte) 1 : (byte) 0;
+            if (population >= 0) {
+                population += alive ? 1 : -1;
+            }
         }
     }
     
     /**
      * Remet à zéro le jeu
      */
-    public void reset() {
+    @Override
+    public synchronized void reset() {
         this.generation = 0;
-        initializeGrid();
+        this.population = 0;
+        Arrays.fill(cells, (byte) 0);
     }
 }
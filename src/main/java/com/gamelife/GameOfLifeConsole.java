@@ -1,17 +1,37 @@
 package com.gamelife;
 
-import java.util.Scanner;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 
 /**
  * Classe principale pour exécuter le Jeu de la Vie en mode console
  */
 public class GameOfLifeConsole {
+    /** Cadence d'animation par défaut (images par seconde) */
+    public static final int DEFAULT_FPS = 30;
+    
     private GameOfLife game;
-    private Scanner scanner;
+    private BufferedReader input;
+    private boolean inputClosed;
+    private ConsoleRenderer renderer;
+    private int fps;
     
     public GameOfLifeConsole() {
-        this.game = new GameOfLife();
-        this.scanner = new Scanner(System.in);
+        this(new GameOfLife(), DEFAULT_FPS);
+    }
+    
+    /**
+     * @param fps cadence cible du mode automatique (0 = sans pause, aussi vite que possible)
+     */
+    public GameOfLifeConsole(GameOfLife game, int fps) {
+        if (fps < 0) {
+            throw new IllegalArgumentException("Cadence invalide: " + fps);
+        }
+        this.game = game;
+        this.input = new BufferedReader(new InputStreamReader(System.in));
+        this.renderer = ConsoleRenderer.forStandardOutput();
+        this.fps = fps;
     }
     
     /**
@@ -27,7 +47,12 @@ public class GameOfLifeConsole {
         
         while (true) {
             System.out.print("Votre choix: ");
-            String choice = scanner.nextLine().trim();
+            String choice = readLine();
+            if (inputClosed) {
+                System.out.println();
+                System.out.println("Au revoir !");
+                return;
+            }
             
             switch (choice.toLowerCase()) {
                 case "1":
@@ -57,9 +82,10 @@ public class GameOfLifeConsole {
                     
                 case "5":
                 case "aleatoire":
+                    long seed = System.nanoTime();
                     game.reset();
-                    game.randomizeGrid();
-                    System.out.println("Grille randomisee !");
+                    game.randomizeGrid(seed, GameOfLife.DEFAULT_DENSITY);
+                    System.out.println("Grille randomisee (graine " + seed + ") !");
                     game.display();
                     break;
                     
@@ -80,6 +106,16 @@ public class GameOfLifeConsole {
                     showStats();
                     break;
                     
+                case "r":
+                case "regle":
+                    changeRule();
+                    break;
+                    
+                case "f":
+                case "cadence":
+                    changeFrameRate();
+                    break;
+                    
                 case "9":
                 case "aide":
                     showMenu();
@@ -112,6 +148,8 @@ public class GameOfLifeConsole {
         System.out.println("6. Modifier une cellule");
         System.out.println("7. Reset");
         System.out.println("8. Statistiques");
+        System.out.println("R. Changer la regle (B/S)");
+        System.out.println("F. Cadence du mode automatique (" + (fps > 0 ? fps + " img/s" : "sans limite") + ")");
         System.out.println("9. Aide");
         System.out.println("0. Quitter");
         System.out.println();
@@ -123,50 +161,93 @@ public class GameOfLifeConsole {
     private void runAutoMode() {
         System.out.print("Nombre de generations a simuler (0 pour infini): ");
         try {
-            int generations = Integer.parseInt(scanner.nextLine().trim());
+            int generations = Integer.parseInt(readLine());
             
-            if (generations == 0) {
-                System.out.println("Mode automatique infini. Appuyez sur Entree pour arreter...");
-                // TODO: Implementer l'arret par input en mode non-bloquant
-                for (int i = 0; i < 50; i++) { // Limite a 50 pour la demo
-                    game.nextGeneration();
-                    game.display();
-                    
-                    if (game.isEmpty()) {
-                        System.out.println("Toutes les cellules sont mortes. Arret automatique.");
-                        break;
-                    }
-                    
-                    try {
-                        Thread.sleep(1000); // Pause d'1 seconde
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
-            } else {
-                for (int i = 0; i < generations; i++) {
-                    game.nextGeneration();
-                    game.display();
-                    
-                    if (game.isEmpty()) {
-                        System.out.println("Toutes les cellules sont mortes a la generation " + game.getGeneration());
-                        break;
-                    }
-                    
-                    try {
-                        Thread.sleep(500); // Pause d'0.5 seconde
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
+            if (generations < 0) {
+                System.out.println("Nombre invalide.");
+                return;
             }
+            System.out.println("Appuyez sur Entree pour arreter...");
+            animate(generations == 0 ? Integer.MAX_VALUE : generations);
         } catch (NumberFormatException e) {
             System.out.println("Nombre invalide.");
         }
     }
     
+    /**
+     * Fait évoluer et affiche la grille à la cadence cible : seul le temps restant
+     * après le calcul et l'affichage de chaque génération est passé en pause, si
+     * bien qu'une grande grille descend d'elle-même à la cadence qu'elle permet.
+     * La ligne d'état affiche les temps mesurés et la cadence obtenue.
+     */
+    private void animate(int generations) {
+        long frameNanos = fps > 0 ? 1_000_000_000L / fps : 0;
+        // Taille du terminal relue à chaque animation (la fenêtre a pu changer)
+        renderer = ConsoleRenderer.forStandardOutput();
+        renderer.render(game, "Cellules vivantes: " + game.getLiveCellCount());
+        
+        long previousFrame = System.nanoTime();
+        for (int i = 0; i < generations && !stopRequested(); i++) {
+            long frameStart = System.nanoTime();
+            game.nextGeneration();
+            long stepEnd = System.nanoTime();
+            double achievedFps = 1e9 / Math.max(1, frameStart - previousFrame);
+            renderer.render(game, String.format("Cellules vivantes: %d | calcul: %.1f ms | %.0f img/s",
+                    game.getLiveCellCount(), (stepEnd - frameStart) / 1e6, achievedFps));
+            previousFrame = frameStart;
+            
+            if (game.isEmpty()) {
+                System.out.println("Toutes les cellules sont mortes a la generation " + game.getGeneration());
+                break;
+            }
+            
+            long remaining = frameNanos - (System.nanoTime() - frameStart);
+            if (remaining > 0) {
+                try {
+                    Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Vérifie sans bloquer si l'utilisateur a validé une ligne (Entrée) pour
+     * arrêter le mode automatique, et consomme cette ligne le cas échéant.
+     * ready() tient compte des caractères déjà lus dans le tampon du lecteur,
+     * que System.in.available() ne voit pas.
+     */
+    private boolean stopRequested() {
+        try {
+            if (input.ready()) {
+                readLine();
+                return true;
+            }
+        } catch (IOException e) {
+            // Entrée indisponible: l'animation va jusqu'au bout
+        }
+        return false;
+    }
+    
+    /**
+     * Lit une ligne saisie, sans espaces autour ; en fin d'entrée (Ctrl+D,
+     * fichier épuisé), retourne une ligne vide et le menu se termine
+     */
+    private String readLine() {
+        try {
+            String line = input.readLine();
+            if (line != null) {
+                return line.trim();
+            }
+        } catch (IOException e) {
+            // Entrée illisible: traitée comme une fin d'entrée
+        }
+        inputClosed = true;
+        return "";
+    }
+    
     /**
      * Permet de modifier l'état d'une cellule
      */
@@ -174,19 +255,22 @@ public class GameOfLifeConsole {
         game.display();
         
         try {
-            System.out.print("Ligne (0-4): ");
-            int row = Integer.parseInt(scanner.nextLine().trim());
+            int maxRow = game.getRows() - 1;
+            int maxCol = game.getCols() - 1;
+            
+            System.out.print("Ligne (0-" + maxRow + "): ");
+            int row = Integer.parseInt(readLine());
             
-            System.out.print("Colonne (0-4): ");
-            int col = Integer.parseInt(scanner.nextLine().trim());
+            System.out.print("Colonne (0-" + maxCol + "): ");
+            int col = Integer.parseInt(readLine());
             
-            if (row < 0 || row >= 5 || col < 0 || col >= 5) {
-                System.out.println("Coordonnees invalides. Utilisez 0-4.");
+            if (row < 0 || row > maxRow || col < 0 || col > maxCol) {
+                System.out.println("Coordonnees invalides. Utilisez 0-" + maxRow + " et 0-" + maxCol + ".");
                 return;
             }
             
             System.out.print("Nouvelle etat (vivant/mort ou true/false): ");
-            String state = scanner.nextLine().trim().toLowerCase();
+            String state = readLine().toLowerCase();
             
             boolean alive;
             if (state.equals("vivant") || state.equals("true") || state.equals("1")) {
@@ -207,18 +291,54 @@ public class GameOfLifeConsole {
         }
     }
     
+    /**
+     * Permet de choisir la règle de transition (notation B/S)
+     */
+    private void changeRule() {
+        System.out.println("Regle actuelle: " + game.getRule());
+        System.out.print("Nouvelle regle (ex: B3/S23, B36/S23, highlife, daynight, seeds): ");
+        
+        try {
+            Rule rule = Rule.parse(readLine());
+            game.setRule(rule);
+            System.out.println("Regle " + rule + " appliquee !");
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+    
+    /**
+     * Permet de choisir la cadence du mode automatique
+     */
+    private void changeFrameRate() {
+        System.out.print("Images par seconde (0 = sans limite, actuellement " + fps + "): ");
+        try {
+            int value = Integer.parseInt(readLine());
+            if (value < 0) {
+                System.out.println("Cadence invalide.");
+                return;
+            }
+            fps = value;
+            System.out.println("Cadence: " + (fps > 0 ? fps + " img/s" : "sans limite"));
+        } catch (NumberFormatException e) {
+            System.out.println("Cadence invalide.");
+        }
+    }
+    
     /**
      * Affiche les statistiques du jeu
      */
     private void showStats() {
         System.out.println("=== STATISTIQUES ===");
         System.out.println("Generation actuelle: " + game.getGeneration());
-        System.out.println("Cellules vivantes: " + game.getLiveCellCount() + "/25");
-        System.out.println("Taux de survie: " + String.format("%.1f", (game.getLiveCellCount() / 25.0) * 100) + "%");
+        System.out.println("Regle: " + game.getRule());
+        int totalCells = game.getRows() * game.getCols();
+        System.out.println("Cellules vivantes: " + game.getLiveCellCount() + "/" + totalCells);
+        System.out.println("Taux de survie: " + String.format("%.1f", (game.getLiveCellCount() / (double) totalCells) * 100) + "%");
         
         if (game.isEmpty()) {
             System.out.println("Etat: Extinction complete");
-        } else if (game.getLiveCellCount() == 25) {
+        } else if (game.getLiveCellCount() == totalCells) {
             System.out.println("Etat: Population maximale");
         } else {
             System.out.println("Etat: Population active");
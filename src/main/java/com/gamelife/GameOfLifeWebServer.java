@@ -6,35 +6,51 @@ import com.sun.net.httpserver.HttpExchange;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.InetSocketAddress;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Serveur web simple pour exposer le Jeu de la Vie via API REST
  */
 public class GameOfLifeWebServer {
-    private GameOfLife game;
+    private Game game;
     private HttpServer server;
     private static final int PORT = 8080;
     
+    /** Nombre maximum de cellules renvoyées cellule par cellule (au-delà: mode aperçu) */
+    private static final long MAX_WINDOW_CELLS = 1L << 20;
+    
+    /** Nombre maximum de générations calculées par une requête /api/game/next */
+    private static final int MAX_STEPS = 100_000;
+    
     public GameOfLifeWebServer() {
-        this.game = new GameOfLife();
+        this(new GameOfLife());
+    }
+    
+    public GameOfLifeWebServer(Game game) {
+        this.game = game;
     }
     
     public void start() throws IOException {
         server = HttpServer.create(new InetSocketAddress(PORT), 0);
         
         // Endpoints API
-        server.createContext("/api/game/state", new GameStateHandler());
-        server.createContext("/api/game/next", new NextGenerationHandler());
-        server.createContext("/api/game/reset", new ResetHandler());
-        server.createContext("/api/game/random", new RandomizeHandler());
-        server.createContext("/api/game/pattern", new PatternHandler());
-        server.createContext("/api/game/cell", new CellHandler());
+        server.createContext("/api/game/state", guarded(new GameStateHandler()));
+        server.createContext("/api/game/next", guarded(new NextGenerationHandler()));
+        server.createContext("/api/game/reset", guarded(new ResetHandler()));
+        server.createContext("/api/game/random", guarded(new RandomizeHandler()));
+        server.createContext("/api/game/pattern", guarded(new PatternHandler()));
+        server.createContext("/api/game/cell", guarded(new CellHandler()));
+        server.createContext("/api/game/rule", guarded(new RuleHandler()));
         
         // Servir les fichiers statiques
         server.createContext("/", new StaticFileHandler());
@@ -52,33 +68,172 @@ public class GameOfLifeWebServer {
         }
     }
     
+    private HttpHandler guarded(HttpHandler handler) {
+        return new GameErrorHandler(handler);
+    }
+    
+    /**
+     * Transforme les pannes d'une partie répartie en réponse JSON plutôt qu'en
+     * connexion coupée : 503 si un worker est injoignable (la grille est alors
+     * perdue, la requête suivante repart d'une grille vide), 502 si un worker
+     * a signalé une erreur
+     */
+    private class GameErrorHandler implements HttpHandler {
+        private final HttpHandler handler;
+        
+        GameErrorHandler(HttpHandler handler) {
+            this.handler = handler;
+        }
+        
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try {
+                handler.handle(exchange);
+            } catch (UncheckedIOException e) {
+                System.err.println("Workers injoignables: " + e.getCause());
+                sendResponse(exchange, 503,
+                        "{\"error\":\"Workers unavailable, board lost\"}", "application/json");
+            } catch (IllegalStateException e) {
+                System.err.println("Erreur d'un worker: " + e.getMessage());
+                sendResponse(exchange, 502, "{\"error\":\"Worker error\"}", "application/json");
+            }
+        }
+    }
+    
+    /**
+     * Fenêtre demandée par le client : ?x=&y=&w=&h= (colonne, ligne, largeur,
+     * hauteur, bornées à la grille) et &block=N pour un aperçu de densité par bloc NxN
+     */
+    private static final class View {
+        final int x;
+        final int y;
+        final int w;
+        final int h;
+        final int block;
+        
+        View(int x, int y, int w, int h, int block) {
+            this.x = x;
+            this.y = y;
+            this.w = w;
+            this.h = h;
+            this.block = block;
+        }
+    }
+    
+    /**
+     * Lit la fenêtre demandée ; le message de l'exception est l'erreur renvoyée au client
+     */
+    private View parseView(Map<String, String> query) {
+        int x, y, w, h, block;
+        try {
+            x = Math.max(0, Integer.parseInt(query.getOrDefault("x", "0")));
+            y = Math.max(0, Integer.parseInt(query.getOrDefault("y", "0")));
+            w = Math.min(game.getCols() - Math.min(x, game.getCols()),
+                    Integer.parseInt(query.getOrDefault("w", String.valueOf(game.getCols()))));
+            h = Math.min(game.getRows() - Math.min(y, game.getRows()),
+                    Integer.parseInt(query.getOrDefault("h", String.valueOf(game.getRows()))));
+            block = Integer.parseInt(query.getOrDefault("block", "1"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid window");
+        }
+        
+        if (w < 0 || h < 0 || block < 1) {
+            throw new IllegalArgumentException("Invalid window");
+        }
+        if (block == 1 && (long) w * h > MAX_WINDOW_CELLS) {
+            throw new IllegalArgumentException("Window too large, use block");
+        }
+        return new View(x, y, w, h, block);
+    }
+    
+    /**
+     * État JSON de la partie vu à travers une fenêtre. Pris sous le verrou de la
+     * partie : génération, compteurs et cellules décrivent une même image.
+     */
+    private String stateJson(View view) {
+        StringBuilder json = new StringBuilder();
+        synchronized (game) {
+            json.append("{");
+            json.append("\"generation\":").append(game.getGeneration()).append(",");
+            json.append("\"rows\":").append(game.getRows()).append(",");
+            json.append("\"cols\":").append(game.getCols()).append(",");
+            json.append("\"liveCells\":").append(game.getLiveCellCount()).append(",");
+            json.append("\"rule\":\"").append(game.getRule()).append("\",");
+            json.append("\"x\":").append(view.x).append(",\"y\":").append(view.y).append(",");
+            json.append("\"w\":").append(view.w).append(",\"h\":").append(view.h).append(",");
+            
+            if (view.block > 1) {
+                appendOverview(json, view.x, view.y, view.w, view.h, view.block);
+            } else {
+                appendWindow(json, view.x, view.y, view.w, view.h);
+            }
+            
+            json.append("}");
+        }
+        return json.toString();
+    }
+    
+    /**
+     * Ajoute les cellules de la fenêtre ("grid")
+     */
+    private void appendWindow(StringBuilder json, int x, int y, int w, int h) {
+        boolean[][] grid = game.getGridWindow(y, x, h, w);
+        json.append("\"grid\":[");
+        
+        for (int i = 0; i < grid.length; i++) {
+            json.append("[");
+            for (int j = 0; j < grid[i].length; j++) {
+                json.append(grid[i][j]);
+                if (j < grid[i].length - 1) json.append(",");
+            }
+            json.append("]");
+            if (i < grid.length - 1) json.append(",");
+        }
+        
+        json.append("]");
+    }
+    
+    /**
+     * Ajoute la densité (0 à 1) de chaque bloc de la fenêtre ("density")
+     */
+    private void appendOverview(StringBuilder json, int x, int y, int w, int h, int block) {
+        int[][] counts = game.countLiveCellsByBlock(y, x, h, w, block);
+        json.append("\"block\":").append(block).append(",");
+        json.append("\"density\":[");
+        
+        for (int bi = 0; bi < counts.length; bi++) {
+            int height = Math.min(block, h - bi * block);
+            json.append("[");
+            for (int bj = 0; bj < counts[bi].length; bj++) {
+                int width = Math.min(block, w - bj * block);
+                json.append(Math.round(1000.0 * counts[bi][bj] / (height * width)) / 1000.0);
+                if (bj < counts[bi].length - 1) json.append(",");
+            }
+            json.append("]");
+            if (bi < counts.length - 1) json.append(",");
+        }
+        
+        json.append("]");
+    }
+    
     /**
      * Handler pour obtenir l'état actuel du jeu
+     * Paramètres optionnels: ?x=&y=&w=&h= pour une fenêtre (colonne, ligne,
+     * largeur, hauteur) et &block=N pour un aperçu de densité par bloc NxN.
+     * Le coût d'une requête dépend de la taille de la fenêtre, pas de la grille.
      */
     private class GameStateHandler implements HttpHandler {
         @Override
         public void handle(HttpExchange exchange) throws IOException {
             if ("GET".equals(exchange.getRequestMethod())) {
-                boolean[][] grid = game.getGridState();
-                StringBuilder json = new StringBuilder();
-                json.append("{");
-                json.append("\"generation\":").append(game.getGeneration()).append(",");
-                json.append("\"liveCells\":").append(game.getLiveCellCount()).append(",");
-                json.append("\"grid\":[");
-                
-                for (int i = 0; i < grid.length; i++) {
-                    json.append("[");
-                    for (int j = 0; j < grid[i].length; j++) {
-                        json.append(grid[i][j]);
-                        if (j < grid[i].length - 1) json.append(",");
-                    }
-                    json.append("]");
-                    if (i < grid.length - 1) json.append(",");
+                View view;
+                try {
+                    view = parseView(parseQuery(exchange));
+                } catch (IllegalArgumentException e) {
+                    sendResponse(exchange, 400, "{\"error\":\"" + e.getMessage() + "\"}", "application/json");
+                    return;
                 }
-                
-                json.append("]}");
-                
-                sendResponse(exchange, 200, json.toString(), "application/json");
+                sendResponse(exchange, 200, stateJson(view), "application/json");
             } else {
                 sendResponse(exchange, 405, "Method Not Allowed", "text/plain");
             }
@@ -87,13 +242,44 @@ public class GameOfLifeWebServer {
     
     /**
      * Handler pour passer à la génération suivante
+     * Paramètres optionnels: ?steps=N pour avancer de N générations d'un coup ;
+     * avec une fenêtre (?x=&y=&w=&h=, &block=N), la réponse est l'état de cette
+     * fenêtre après le calcul, comme /api/game/state, ce qui évite une seconde requête
      */
     private class NextGenerationHandler implements HttpHandler {
         @Override
         public void handle(HttpExchange exchange) throws IOException {
             if ("POST".equals(exchange.getRequestMethod())) {
-                game.nextGeneration();
-                sendResponse(exchange, 200, "{\"success\":true,\"generation\":" + game.getGeneration() + "}", "application/json");
+                Map<String, String> query = parseQuery(exchange);
+                int steps;
+                try {
+                    steps = Integer.parseInt(query.getOrDefault("steps", "1"));
+                } catch (NumberFormatException e) {
+                    steps = -1;
+                }
+                if (steps < 1 || steps > MAX_STEPS) {
+                    sendResponse(exchange, 400, "{\"error\":\"Invalid steps\"}", "application/json");
+                    return;
+                }
+                
+                View view = null;
+                if (query.containsKey("w") || query.containsKey("h") || query.containsKey("block")) {
+                    try {
+                        view = parseView(query);
+                    } catch (IllegalArgumentException e) {
+                        sendResponse(exchange, 400, "{\"error\":\"" + e.getMessage() + "\"}", "application/json");
+                        return;
+                    }
+                }
+                
+                String json;
+                synchronized (game) {
+                    game.advance(steps);
+                    json = view != null
+                            ? stateJson(view)
+                            : "{\"success\":true,\"generation\":" + game.getGeneration() + "}";
+                }
+                sendResponse(exchange, 200, json, "application/json");
             } else {
                 sendResponse(exchange, 405, "Method Not Allowed", "text/plain");
             }
@@ -122,8 +308,22 @@ public class GameOfLifeWebServer {
         @Override
         public void handle(HttpExchange exchange) throws IOException {
             if ("POST".equals(exchange.getRequestMethod())) {
-                game.randomizeGrid();
-                sendResponse(exchange, 200, "{\"success\":true}", "application/json");
+                // Paramètres optionnels: ?seed=42&density=0.3 (graine renvoyée pour rejouer)
+                Map<String, String> query = parseQuery(exchange);
+                
+                try {
+                    long seed = query.containsKey("seed")
+                            ? Long.parseLong(query.get("seed"))
+                            : ThreadLocalRandom.current().nextLong();
+                    double density = query.containsKey("density")
+                            ? Double.parseDouble(query.get("density"))
+                            : GameOfLife.DEFAULT_DENSITY;
+                    
+                    game.randomizeGrid(seed, density);
+                    sendResponse(exchange, 200, "{\"success\":true,\"seed\":" + seed + ",\"density\":" + density + "}", "application/json");
+                } catch (IllegalArgumentException e) {
+                    sendResponse(exchange, 400, "{\"error\":\"Invalid seed or density\"}", "application/json");
+                }
             } else {
                 sendResponse(exchange, 405, "Method Not Allowed", "text/plain");
             }
@@ -137,8 +337,10 @@ public class GameOfLifeWebServer {
         @Override
         public void handle(HttpExchange exchange) throws IOException {
             if ("POST".equals(exchange.getRequestMethod())) {
-                game.reset();
-                game.setInitialPattern();
+                synchronized (game) {
+                    game.reset();
+                    game.setInitialPattern();
+                }
                 sendResponse(exchange, 200, "{\"success\":true}", "application/json");
             } else {
                 sendResponse(exchange, 405, "Method Not Allowed", "text/plain");
@@ -157,16 +359,48 @@ public class GameOfLifeWebServer {
                 String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
                 // Format attendu: {"row":0,"col":1,"alive":true}
                 
+                int row;
+                int col;
+                boolean alive;
                 try {
-                    int row = parseIntFromJson(body, "row");
-                    int col = parseIntFromJson(body, "col");
-                    boolean alive = parseBooleanFromJson(body, "alive");
-                    
-                    game.setCellState(row, col, alive);
-                    sendResponse(exchange, 200, "{\"success\":true}", "application/json");
+                    row = parseIntFromJson(body, "row");
+                    col = parseIntFromJson(body, "col");
+                    alive = parseBooleanFromJson(body, "alive");
                 } catch (Exception e) {
                     sendResponse(exchange, 400, "{\"error\":\"Invalid JSON\"}", "application/json");
+                    return;
+                }
+                
+                game.setCellState(row, col, alive);
+                sendResponse(exchange, 200, "{\"success\":true}", "application/json");
+            } else {
+                sendResponse(exchange, 405, "Method Not Allowed", "text/plain");
+            }
+        }
+    }
+    
+    /**
+     * Handler pour consulter ou changer la règle (notation B/S)
+     */
+    private class RuleHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if ("GET".equals(exchange.getRequestMethod())) {
+                sendResponse(exchange, 200, "{\"rule\":\"" + game.getRule() + "\"}", "application/json");
+            } else if ("POST".equals(exchange.getRequestMethod())) {
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                // Format attendu: {"rule":"B36/S23"} ou {"rule":"highlife"}
+                
+                Rule rule;
+                try {
+                    rule = Rule.parse(parseStringFromJson(body, "rule"));
+                } catch (Exception e) {
+                    sendResponse(exchange, 400, "{\"error\":\"Invalid rule\"}", "application/json");
+                    return;
                 }
+                
+                game.setRule(rule);
+                sendResponse(exchange, 200, "{\"success\":true,\"rule\":\"" + rule + "\"}", "application/json");
             } else {
                 sendResponse(exchange, 405, "Method Not Allowed", "text/plain");
             }
@@ -259,6 +493,26 @@ public class GameOfLifeWebServer {
         }
     }
     
+    /**
+     * Lit les paramètres de la query string (?cle=valeur&...)
+     */
+    private Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                           URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+    
     /**
      * Parse simple d'un entier depuis JSON
      */
@@ -280,4 +534,14 @@ public class GameOfLifeWebServer {
         if (end == -1) end = json.indexOf("}", start);
         return Boolean.parseBoolean(json.substring(start, end).trim());
     }
+    
+    /**
+     * Parse simple d'une chaîne depuis JSON
+     */
+    private String parseStringFromJson(String json, String key) {
+        String pattern = "\"" + key + "\":";
+        int start = json.indexOf("\"", json.indexOf(pattern) + pattern.length()) + 1;
+        int end = json.indexOf("\"", start);
+        return json.substring(start, end);
+    }
 }
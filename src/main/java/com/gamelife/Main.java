@@ -1,6 +1,13 @@
 package com.gamelife;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Point d'entrée principal de l'application
@@ -18,40 +25,89 @@ public class Main {
             mode = args[0].toLowerCase();
         }
         
-        switch (mode) {
-            case "console":
-            case "cli":
-                runConsoleMode();
-                break;
+        try {
+            switch (mode) {
+                case "console":
+                case "cli":
+                    runConsoleMode(parseOptions(args));
+                    break;
+                
+                case "soup":
+                    runSoupMode(parseOptions(args));
+                    break;
+                
+                case "bench":
+                    runBenchMode(parseOptions(args));
+                    break;
+                
+                case "worker":
+                    runWorkerMode(parseOptions(args));
+                    break;
+                
+                case "cluster":
+                    runClusterMode(parseOptions(args));
+                    break;
                 
-            case "web":
-            case "server":
-            default:
-                runWebMode();
-                break;
+                case "web":
+                case "server":
+                    runWebMode(parseOptions(args));
+                    break;
+                
+                default:
+                    runWebMode(new HashMap<>());
+                    break;
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Parametre invalide: " + e.getMessage());
         }
     }
     
     /**
      * Lance le mode console interactif
+     * Exemple: java com.gamelife.Main console --size 40 --rule B36/S23 --fps 60
      */
-    private static void runConsoleMode() {
+    private static void runConsoleMode(Map<String, String> options) {
         System.out.println("Mode: Console Interactive");
         System.out.println();
         
-        GameOfLifeConsole console = new GameOfLifeConsole();
+        GameOfLifeConsole console;
+        try {
+            int size = Integer.parseInt(options.getOrDefault("size", String.valueOf(GameOfLife.DEFAULT_GRID_SIZE)));
+            Rule rule = Rule.parse(options.getOrDefault("rule", "B3/S23"));
+            int fps = Integer.parseInt(options.getOrDefault("fps", String.valueOf(GameOfLifeConsole.DEFAULT_FPS)));
+            console = new GameOfLifeConsole(new GameOfLife(size, size, rule), fps);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Parametre invalide: " + e.getMessage());
+            return;
+        }
+        
         console.run();
     }
     
     /**
      * Lance le serveur web
      */
-    private static void runWebMode() {
+    private static void runWebMode(Map<String, String> options) {
         System.out.println("Mode: Serveur Web");
         System.out.println();
         
-        GameOfLifeWebServer server = new GameOfLifeWebServer();
+        GameOfLifeWebServer server;
+        try {
+            int size = Integer.parseInt(options.getOrDefault("size", String.valueOf(GameOfLife.DEFAULT_GRID_SIZE)));
+            Rule rule = Rule.parse(options.getOrDefault("rule", "B3/S23"));
+            server = new GameOfLifeWebServer(new GameOfLife(size, size, rule));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Parametre invalide: " + e.getMessage());
+            return;
+        }
         
+        serve(server);
+    }
+    
+    /**
+     * Démarre le serveur web et le garde en vie jusqu'à l'arrêt demandé
+     */
+    private static void serve(GameOfLifeWebServer server) {
         try {
             server.start();
             
@@ -85,4 +141,144 @@ public class Main {
             Thread.currentThread().interrupt();
         }
     }
+    
+    /**
+     * Lance un worker de simulation répartie
+     * Exemple: java com.gamelife.Main worker --port 9101
+     */
+    private static void runWorkerMode(Map<String, String> options) {
+        System.out.println("Mode: Worker de simulation repartie");
+        System.out.println();
+        
+        try {
+            int port = Integer.parseInt(options.getOrDefault("port", "9101"));
+            new ClusterWorker(port).run();
+        } catch (IOException e) {
+            System.err.println("Erreur du worker: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Lance le coordinateur d'une simulation répartie et l'expose via l'API web
+     * Exemple: java com.gamelife.Main cluster --workers localhost:9101,localhost:9102 --size 4096
+     */
+    private static void runClusterMode(Map<String, String> options) {
+        System.out.println("Mode: Coordinateur de simulation repartie");
+        System.out.println();
+        
+        String workerList = options.get("workers");
+        if (workerList == null) {
+            System.err.println("Option --workers requise (hote:port,hote:port,...)");
+            return;
+        }
+        
+        try {
+            List<InetSocketAddress> workers = new ArrayList<>();
+            for (String worker : workerList.split(",")) {
+                int separator = worker.lastIndexOf(':');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("Adresse de worker invalide: " + worker);
+                }
+                workers.add(InetSocketAddress.createUnresolved(worker.substring(0, separator).trim(),
+                        Integer.parseInt(worker.substring(separator + 1).trim())));
+            }
+            
+            int size = Integer.parseInt(options.getOrDefault("size", "1024"));
+            int rows = Integer.parseInt(options.getOrDefault("rows", String.valueOf(size)));
+            int cols = Integer.parseInt(options.getOrDefault("cols", String.valueOf(size)));
+            Rule rule = Rule.parse(options.getOrDefault("rule", "B3/S23"));
+            
+            ClusterCoordinator coordinator = new ClusterCoordinator(workers, rows, cols, rule);
+            serve(new GameOfLifeWebServer(coordinator));
+            coordinator.close();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Parametre invalide: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            System.err.println("Erreur des workers: " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Impossible de joindre les workers: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Lance la recherche de soupes en mode batch (sans serveur web)
+     * Exemple: java com.gamelife.Main soup --count 1000000 --size 64
+     */
+    private static void runSoupMode(Map<String, String> options) {
+        System.out.println("Mode: Recherche de soupes");
+        System.out.println();
+        
+        try {
+            long count = Long.parseLong(options.getOrDefault("count", "1000"));
+            int size = Integer.parseInt(options.getOrDefault("size", "64"));
+            long seed = Long.parseLong(options.getOrDefault("seed", "0"));
+            double density = Double.parseDouble(options.getOrDefault("density",
+                    String.valueOf(GameOfLife.DEFAULT_DENSITY)));
+            int maxGenerations = Integer.parseInt(options.getOrDefault("max-gen", "5000"));
+            int threads = Integer.parseInt(options.getOrDefault("threads",
+                    String.valueOf(Runtime.getRuntime().availableProcessors())));
+            Rule rule = Rule.parse(options.getOrDefault("rule", "B3/S23"));
+            Path output = Paths.get(options.getOrDefault("out", "soup-census.txt"));
+            
+            System.out.println(count + " soupes " + size + "x" + size + ", regle " + rule
+                    + ", graine " + seed + ", densite " + density + ", " + threads + " threads");
+            
+            SoupSearch search = new SoupSearch(count, size, seed, density, maxGenerations, threads, rule);
+            long start = System.nanoTime();
+            Map<Long, Long> census = search.run();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            
+            search.writeCensus(census, output);
+            System.out.println(String.format("Termine en %.1f s (%.0f soupes/s)", seconds, count / seconds));
+            System.out.println("Recensement ecrit dans " + output.toAbsolutePath());
+            
+        } catch (IllegalArgumentException e) {
+            System.err.println("Parametre invalide: " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'ecriture du recensement: " + e.getMessage());
+        } catch (InterruptedException e) {
+            System.out.println("Recherche interrompue.");
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Compare le calcul génération par génération et le blocage temporel
+     * Exemple: java com.gamelife.Main bench --size 4096 --generations 64
+     */
+    private static void runBenchMode(Map<String, String> options) {
+        System.out.println("Mode: Benchmark du blocage temporel");
+        System.out.println();
+        
+        try {
+            int size = Integer.parseInt(options.getOrDefault("size", "4096"));
+            int generations = Integer.parseInt(options.getOrDefault("generations", "64"));
+            int tile = Integer.parseInt(options.getOrDefault("tile", "256"));
+            int depth = Integer.parseInt(options.getOrDefault("depth", "8"));
+            boolean parallel = Boolean.parseBoolean(options.getOrDefault("parallel", "false"));
+            long seed = Long.parseLong(options.getOrDefault("seed", "0"));
+            Rule rule = Rule.parse(options.getOrDefault("rule", "B3/S23"));
+            
+            new TilingBenchmark(size, generations, tile, depth, parallel, rule, seed).run(System.out);
+            
+        } catch (IllegalArgumentException e) {
+            System.err.println("Parametre invalide: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Lit les options "--cle valeur" qui suivent le mode
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--") && i + 1 < args.length) {
+                options.put(args[i].substring(2), args[i + 1]);
+                i++;
+            } else {
+                throw new IllegalArgumentException("Option invalide: " + args[i]);
+            }
+        }
+        return options;
+    }
 }
@@ -0,0 +1,155 @@
+package com.gamelife;
+
+/**
+ * Règle totalistique externe du Jeu de la Vie (notation B/S)
+ * compilée en table de transition sur le voisinage 3x3
+ */
+public final class Rule {
+    public static final Rule CONWAY = parse("B3/S23");
+    public static final Rule HIGHLIFE = parse("B36/S23");
+    public static final Rule DAY_AND_NIGHT = parse("B3678/S34678");
+    public static final Rule SEEDS = parse("B2/S");
+
+    /** Nombre de voisinages 3x3 possibles (9 bits) */
+    public static final int NEIGHBORHOOD_COUNT = 512;
+
+    /** Position du bit de la cellule centrale dans un voisinage 3x3 */
+    public static final int CENTER_BIT = 4;
+
+    private final int birthMask;
+    private final int survivalMask;
+    private final boolean[] table;
+
+    private Rule(int birthMask, int survivalMask) {
+        this.birthMask = birthMask;
+        this.survivalMask = survivalMask;
+        this.table = compile(birthMask, survivalMask);
+    }
+
+    /**
+     * Précalcule l'état suivant pour chacun des 512 voisinages 3x3.
+     * Un voisinage est codé colonne par colonne (gauche, centre, droite),
+     * chaque colonne sur 3 bits (haut, milieu, bas) : la cellule centrale
+     * est donc le bit 4.
+     */
+    private static boolean[] compile(int birthMask, int survivalMask) {
+        boolean[] table = new boolean[NEIGHBORHOOD_COUNT];
+        for (int neighborhood = 0; neighborhood < NEIGHBORHOOD_COUNT; neighborhood++) {
+            boolean alive = (neighborhood >> CENTER_BIT & 1) != 0;
+            int neighbors = Integer.bitCount(neighborhood) - (alive ? 1 : 0);
+            int mask = alive ? survivalMask : birthMask;
+            table[neighborhood] = (mask >> neighbors & 1) != 0;
+        }
+        return table;
+    }
+
+    /**
+     * Construit une règle depuis sa notation ("B36/S23") ou son nom
+     * ("conway", "highlife", "daynight", "seeds")
+     */
+    public static Rule parse(String notation) {
+        if (notation == null) {
+            throw new IllegalArgumentException("Regle manquante");
+        }
+
+        String value = notation.trim().toUpperCase();
+        switch (value) {
+            case "CONWAY":
+            case "LIFE":
+                value = "B3/S23";
+                break;
+            case "HIGHLIFE":
+                value = "B36/S23";
+                break;
+            case "DAYNIGHT":
+            case "DAY&NIGHT":
+            case "DAY_AND_NIGHT":
+                value = "B3678/S34678";
+                break;
+            case "SEEDS":
+                value = "B2/S";
+                break;
+            default:
+                break;
+        }
+
+        String[] parts = value.split("/", -1);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Regle invalide: " + notation);
+        }
+
+        int birthMask = -1;
+        int survivalMask = -1;
+        for (String part : parts) {
+            if (part.startsWith("B") && birthMask < 0) {
+                birthMask = parseCounts(part.substring(1), notation);
+            } else if (part.startsWith("S") && survivalMask < 0) {
+                survivalMask = parseCounts(part.substring(1), notation);
+            } else {
+                throw new IllegalArgumentException("Regle invalide: " + notation);
+            }
+        }
+
+        return new Rule(birthMask, survivalMask);
+    }
+
+    /**
+     * Convertit une liste de chiffres (0-8) en masque de bits
+     */
+    private static int parseCounts(String digits, String notation) {
+        int mask = 0;
+        for (char c : digits.toCharArray()) {
+            if (c < '0' || c > '8') {
+                throw new IllegalArgumentException("Regle invalide: " + notation);
+            }
+            mask |= 1 << (c - '0');
+        }
+        return mask;
+    }
+
+    /**
+     * État suivant de la cellule centrale d'un voisinage 3x3 codé sur 9 bits
+     */
+    public boolean nextState(int neighborhood) {
+        return table[neighborhood];
+    }
+
+    /**
+     * État suivant d'une cellule selon son état et son nombre de voisins vivants
+     */
+    public boolean nextState(boolean alive, int liveNeighbors) {
+        int mask = alive ? survivalMask : birthMask;
+        return (mask >> liveNeighbors & 1) != 0;
+    }
+
+    /**
+     * Notation canonique B/S de la règle
+     */
+    @Override
+    public String toString() {
+        return "B" + formatCounts(birthMask) + "/S" + formatCounts(survivalMask);
+    }
+
+    private static String formatCounts(int mask) {
+        StringBuilder digits = new StringBuilder();
+        for (int n = 0; n <= 8; n++) {
+            if ((mask >> n & 1) != 0) {
+                digits.append(n);
+            }
+        }
+        return digits.toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        Rule rule = (Rule) obj;
+        return birthMask == rule.birthMask && survivalMask == rule.survivalMask;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * birthMask + survivalMask;
+    }
+}
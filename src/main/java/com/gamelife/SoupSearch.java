@@ -0,0 +1,266 @@
+package com.gamelife;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recherche de "soupes" en mode batch : génère des grilles aléatoires à partir
+ * de graines déterministes, les fait évoluer jusqu'à stabilisation sur tous les
+ * coeurs et produit un recensement des populations et périodes finales
+ */
+public class SoupSearch {
+    /** Nombre de soupes réservées d'un coup par un thread */
+    private static final int BATCH_SIZE = 64;
+
+    /** Lecture d'une grille d'octets par mots de 8 cellules pour l'empreinte */
+    private static final VarHandle WORDS =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final long count;
+    private final int size;
+    private final long baseSeed;
+    private final double density;
+    private final int maxGenerations;
+    private final int threads;
+    private final Rule rule;
+
+    private final AtomicLong nextSoup = new AtomicLong();
+    private final AtomicLong completedSoups = new AtomicLong();
+
+    public SoupSearch(long count, int size, long baseSeed, double density,
+                      int maxGenerations, int threads, Rule rule) {
+        if (count <= 0 || size <= 0 || maxGenerations <= 0 || threads <= 0
+                || !(density >= 0.0 && density <= 1.0)) {
+            throw new IllegalArgumentException("Parametres de recherche invalides");
+        }
+        this.count = count;
+        this.size = size;
+        this.baseSeed = baseSeed;
+        this.density = density;
+        this.maxGenerations = maxGenerations;
+        this.threads = threads;
+        this.rule = rule;
+    }
+
+    /**
+     * Lance la recherche et retourne le recensement :
+     * clé (population, période) -> nombre de soupes
+     */
+    public Map<Long, Long> run() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Map<Long, Long>>> results = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(this::runWorker));
+            }
+
+            Map<Long, Long> census = new TreeMap<>();
+            for (Future<Map<Long, Long>> result : results) {
+                result.get().forEach((key, soups) -> census.merge(key, soups, Long::sum));
+            }
+            return census;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Echec de la recherche de soupes", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Boucle d'un thread : réserve des lots de soupes jusqu'à épuisement
+     * en réutilisant la même grille de remplissage et les mêmes tampons
+     */
+    private Map<Long, Long> runWorker() {
+        GameOfLife game = new GameOfLife(size, size, rule);
+        byte[][] buffers = new byte[4][size * size];
+        StateTable seen = new StateTable();
+        Map<Long, Long> census = new HashMap<>();
+
+        long start;
+        while ((start = nextSoup.getAndAdd(BATCH_SIZE)) < count) {
+            long end = Math.min(start + BATCH_SIZE, count);
+            for (long soup = start; soup < end; soup++) {
+                long key = runSoup(game, buffers, seen, baseSeed + soup);
+                census.merge(key, 1L, Long::sum);
+            }
+            reportProgress(completedSoups.addAndGet(end - start), end - start);
+        }
+        return census;
+    }
+
+    /**
+     * Fait évoluer une soupe jusqu'à ce qu'un état déjà vu réapparaisse
+     * (ou jusqu'à la limite de générations, période 0). Les états vus sont
+     * repérés par leur empreinte ; une empreinte retrouvée n'est acceptée
+     * qu'après avoir vérifié que la grille revient bien à l'identique au bout
+     * de la période supposée, la période est donc exacte.
+     */
+    private long runSoup(GameOfLife game, byte[][] buffers, StateTable seen, long seed) {
+        byte[] current = buffers[0];
+        byte[] next = buffers[1];
+        game.randomizeGrid(seed, density);
+        game.copyCells(current);
+        seen.clear();
+        seen.putIfAbsent(hash(current), 0);
+
+        int period = 0;
+        for (int generation = 1; generation <= maxGenerations; generation++) {
+            TiledStepper.stepRegion(current, next, size, size, 0, size, 0, size, rule);
+            byte[] swap = current;
+            current = next;
+            next = swap;
+
+            int previous = seen.putIfAbsent(hash(current), generation);
+            if (previous >= 0 && returnsAfter(current, generation - previous, buffers[2], buffers[3])) {
+                period = generation - previous;
+                break;
+            }
+        }
+        return censusKey(countLive(current), period);
+    }
+
+    /**
+     * Vérifie sur une copie que la grille est identique après generations générations
+     */
+    private boolean returnsAfter(byte[] cells, int generations, byte[] copy, byte[] next) {
+        System.arraycopy(cells, 0, copy, 0, cells.length);
+        for (int g = 0; g < generations; g++) {
+            TiledStepper.stepRegion(copy, next, size, size, 0, size, 0, size, rule);
+            byte[] swap = copy;
+            copy = next;
+            next = swap;
+        }
+        return Arrays.equals(cells, copy);
+    }
+
+    /**
+     * Empreinte 64 bits d'une grille, calculée 8 cellules à la fois
+     */
+    private static long hash(byte[] cells) {
+        long hash = 0xcbf29ce484222325L;
+        int k = 0;
+        for (; k + 8 <= cells.length; k += 8) {
+            hash = (hash ^ (long) WORDS.get(cells, k)) * 0x100000001b3L;
+            hash ^= hash >>> 29;
+        }
+        for (; k < cells.length; k++) {
+            hash = (hash ^ cells[k]) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static int countLive(byte[] cells) {
+        int live = 0;
+        for (byte cell : cells) {
+            live += cell;
+        }
+        return live;
+    }
+
+    private void reportProgress(long done, long batch) {
+        long step = Math.max(count / 10, 1);
+        if (done / step != (done - batch) / step || done == count) {
+            System.out.println("Soupes terminees: " + done + "/" + count);
+        }
+    }
+
+    static long censusKey(int population, int period) {
+        return ((long) population << 32) | period;
+    }
+
+    /**
+     * Écrit le recensement sous forme compacte : une ligne
+     * "population periode soupes" par combinaison observée
+     */
+    public void writeCensus(Map<Long, Long> census, Path output) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            writer.write("# soupes=" + count + " taille=" + size + "x" + size + " regle=" + rule
+                    + " graine=" + baseSeed + " densite=" + density + " generationsMax=" + maxGenerations);
+            writer.newLine();
+            writer.write("# population periode soupes (periode 0 = non stabilisee)");
+            writer.newLine();
+            for (Map.Entry<Long, Long> entry : census.entrySet()) {
+                long key = entry.getKey();
+                writer.write((key >>> 32) + " " + (int) key + " " + entry.getValue());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Table des empreintes vues pendant une soupe, à adressage ouvert sur des
+     * tableaux de types primitifs (pas d'objet par génération). Une entrée n'est
+     * valide que si elle porte le numéro de la soupe courante : clear() ne
+     * parcourt pas la table.
+     */
+    private static final class StateTable {
+        private long[] hashes = new long[1024];
+        private int[] generations = new int[1024];
+        private int[] stamps = new int[1024];
+        private int stamp = 1;
+        private int size;
+
+        void clear() {
+            size = 0;
+            if (++stamp == 0) {
+                Arrays.fill(stamps, 0);
+                stamp = 1;
+            }
+        }
+
+        /**
+         * Enregistre l'empreinte et retourne la génération où elle a déjà été
+         * vue, ou -1 si elle est nouvelle
+         */
+        int putIfAbsent(long hash, int generation) {
+            int mask = hashes.length - 1;
+            int slot = (int) (hash ^ (hash >>> 32)) & mask;
+            while (stamps[slot] == stamp) {
+                if (hashes[slot] == hash) {
+                    return generations[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            stamps[slot] = stamp;
+            hashes[slot] = hash;
+            generations[slot] = generation;
+            if (++size * 2 > hashes.length) {
+                grow();
+            }
+            return -1;
+        }
+
+        private void grow() {
+            long[] oldHashes = hashes;
+            int[] oldGenerations = generations;
+            int[] oldStamps = stamps;
+            hashes = new long[oldHashes.length * 2];
+            generations = new int[oldHashes.length * 2];
+            stamps = new int[oldHashes.length * 2];
+            size = 0;
+            for (int slot = 0; slot < oldHashes.length; slot++) {
+                if (oldStamps[slot] == stamp) {
+                    putIfAbsent(oldHashes[slot], oldGenerations[slot]);
+                }
+            }
+        }
+    }
+}
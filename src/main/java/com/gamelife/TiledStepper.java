@@ -0,0 +1,169 @@
+package com.gamelife;
+
+import java.util.stream.IntStream;
+
+/**
+ * Calcul de plusieurs générations par blocage temporel : la grille (un octet
+ * par cellule, ligne par ligne, bords morts) est découpée en tuiles qui tiennent
+ * en cache. Chaque tuile est chargée avec une marge de depth cellules puis
+ * avancée de depth générations sans quitter le cache ; la zone valide rétrécit
+ * d'une cellule par génération, si bien qu'après depth générations l'intérieur
+ * de la tuile est exact. La grille ne traverse donc la mémoire qu'une fois
+ * toutes les depth générations au lieu d'une fois par génération.
+ */
+public class TiledStepper {
+    /** Hauteur des bandes de lignes calculées en parallèle par sweepRows() */
+    private static final int SWEEP_BAND_ROWS = 64;
+
+    private final Rule rule;
+    private final int tileSize;
+    private final int depth;
+    private final boolean parallel;
+
+    /** Tampons de travail d'une tuile, réutilisés par chaque thread */
+    private final ThreadLocal<byte[][]> scratch;
+
+    public TiledStepper(Rule rule, int tileSize, int depth, boolean parallel) {
+        if (tileSize <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Tuile ou profondeur invalide: " + tileSize + "/" + depth);
+        }
+        this.rule = rule;
+        this.tileSize = tileSize;
+        this.depth = depth;
+        this.parallel = parallel;
+
+        int side = tileSize + 2 * depth;
+        this.scratch = ThreadLocal.withInitial(() -> new byte[][] {new byte[side * side], new byte[side * side]});
+    }
+
+    /**
+     * Avance la grille de plusieurs générations et retourne la grille obtenue
+     * (le tableau passé en paramètre sert de tampon et est écrasé)
+     */
+    public byte[] advance(byte[] cells, int rows, int cols, int generations) {
+        byte[] src = cells;
+        byte[] dst = new byte[cells.length];
+        int tileRows = (rows + tileSize - 1) / tileSize;
+        int tileCols = (cols + tileSize - 1) / tileSize;
+
+        for (int done = 0; done < generations; done += depth) {
+            int steps = Math.min(depth, generations - done);
+            byte[] from = src;
+            byte[] to = dst;
+
+            IntStream tiles = IntStream.range(0, tileRows * tileCols);
+            if (parallel) {
+                tiles = tiles.parallel();
+            }
+            tiles.forEach(tile -> advanceTile(from, to, rows, cols,
+                    (tile / tileCols) * tileSize, (tile % tileCols) * tileSize, steps));
+
+            src = to;
+            dst = from;
+        }
+        return src;
+    }
+
+    /**
+     * Charge une tuile et sa marge, l'avance de steps générations dans les
+     * tampons de travail puis recopie son intérieur dans la grille destination
+     */
+    private void advanceTile(byte[] src, byte[] dst, int rows, int cols, int tileRow, int tileCol, int steps) {
+        int top = Math.max(0, tileRow - steps);
+        int left = Math.max(0, tileCol - steps);
+        int bottom = Math.min(rows, tileRow + tileSize + steps);
+        int right = Math.min(cols, tileCol + tileSize + steps);
+        int height = bottom - top;
+        int width = right - left;
+
+        byte[][] buffers = scratch.get();
+        byte[] current = buffers[0];
+        byte[] next = buffers[1];
+        for (int i = 0; i < height; i++) {
+            System.arraycopy(src, (top + i) * cols + left, current, i * width, width);
+        }
+
+        for (int s = 1; s <= steps; s++) {
+            // Les côtés situés au bord de la grille restent exacts (cellules
+            // extérieures mortes) ; les autres perdent une cellule par génération
+            stepRegion(current, next, height, width,
+                    top > 0 ? s : 0, bottom < rows ? height - s : height,
+                    left > 0 ? s : 0, right < cols ? width - s : width, rule);
+            byte[] swap = current;
+            current = next;
+            next = swap;
+        }
+
+        int innerRows = Math.min(tileSize, rows - tileRow);
+        int innerCols = Math.min(tileSize, cols - tileCol);
+        for (int i = 0; i < innerRows; i++) {
+            System.arraycopy(current, (tileRow - top + i) * width + (tileCol - left),
+                    dst, (tileRow + i) * cols + tileCol, innerCols);
+        }
+    }
+
+    /**
+     * Une génération sur toute la grille en un seul balayage (référence sans
+     * blocage temporel : toute la grille traverse la mémoire à chaque génération),
+     * éventuellement répartie en bandes de lignes entre les coeurs
+     */
+    public static void sweep(byte[] src, byte[] dst, int rows, int cols, Rule rule, boolean parallel) {
+        sweepRows(src, dst, rows, cols, 0, rows, rule, parallel);
+    }
+
+    /**
+     * Calcule les lignes [top, bottom) d'un tampon height x width sur toute
+     * leur largeur, par bandes de lignes éventuellement réparties entre les coeurs
+     */
+    static void sweepRows(byte[] src, byte[] dst, int height, int width,
+                          int top, int bottom, Rule rule, boolean parallel) {
+        IntStream bands = IntStream.range(0, (bottom - top + SWEEP_BAND_ROWS - 1) / SWEEP_BAND_ROWS);
+        if (parallel) {
+            bands = bands.parallel();
+        }
+        bands.forEach(band -> stepRegion(src, dst, height, width, top + band * SWEEP_BAND_ROWS,
+                Math.min(bottom, top + (band + 1) * SWEEP_BAND_ROWS), 0, width, rule));
+    }
+
+    /**
+     * Calcule les cellules [top, bottom) x [left, right) d'un tampon height x width,
+     * les cellules hors du tampon étant mortes. Même fenêtre glissante 3x3 que
+     * GameOfLife.nextGeneration().
+     */
+    static void stepRegion(byte[] src, byte[] dst, int height, int width,
+                           int top, int bottom, int left, int right, Rule rule) {
+        for (int i = top; i < bottom; i++) {
+            int up = i > 0 ? (i - 1) * width : -1;
+            int mid = i * width;
+            int down = i < height - 1 ? (i + 1) * width : -1;
+
+            int neighborhood = left > 0 ? columnBits(src, up, mid, down, left - 1) : 0;
+            neighborhood = (neighborhood << 3) | columnBits(src, up, mid, down, left);
+            int j = left;
+            if (up >= 0 && down >= 0) {
+                // Cas courant : lignes voisines présentes, boucle sans test jusqu'à
+                // l'avant-dernière colonne du tampon
+                for (int end = Math.min(right, width - 1); j < end; j++) {
+                    int east = src[up + j + 1] << 2 | src[mid + j + 1] << 1 | src[down + j + 1];
+                    neighborhood = ((neighborhood << 3) & 0x1FF) | east;
+                    dst[mid + j] = rule.nextState(neighborhood) ? (byte) 1 : (byte) 0;
+                }
+            }
+            for (; j < right; j++) {
+                int east = j + 1 < width ? columnBits(src, up, mid, down, j + 1) : 0;
+                neighborhood = ((neighborhood << 3) & 0x1FF) | east;
+                dst[mid + j] = rule.nextState(neighborhood) ? (byte) 1 : (byte) 0;
+            }
+        }
+    }
+
+    /**
+     * Code une colonne du voisinage sur 3 bits (haut, milieu, bas) ;
+     * un indice de ligne négatif désigne une ligne hors du tampon
+     */
+    private static int columnBits(byte[] cells, int up, int mid, int down, int col) {
+        return (up >= 0 ? cells[up + col] << 2 : 0)
+                | cells[mid + col] << 1
+                | (down >= 0 ? cells[down + col] : 0);
+    }
+}
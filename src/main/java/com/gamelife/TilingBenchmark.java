@@ -0,0 +1,129 @@
+package com.gamelife;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Compare, sur une même grille aléatoire, le calcul génération par génération
+ * (un balayage complet de la grille par génération) et le blocage temporel de
+ * TiledStepper : temps mesurés et vérification que les deux grilles finales
+ * sont identiques.
+ * Avec parallel, les deux méthodes utilisent le même nombre de coeurs (bandes
+ * de lignes pour le balayage, tuiles pour le blocage temporel) : l'écart mesuré
+ * ne vient que du blocage temporel.
+ */
+public class TilingBenchmark {
+    /** Répétitions non mesurées, le temps que le JIT compile les boucles de calcul */
+    private static final int WARMUP_ROUNDS = 3;
+
+    /** Côté de la grille d'échauffement (inutile de chauffer sur la grille complète) */
+    private static final int WARMUP_SIZE = 1024;
+
+    private final int size;
+    private final int generations;
+    private final int tileSize;
+    private final int depth;
+    private final boolean parallel;
+    private final Rule rule;
+    private final long seed;
+
+    public TilingBenchmark(int size, int generations, int tileSize, int depth,
+                           boolean parallel, Rule rule, long seed) {
+        if (size <= 0 || generations <= 0 || (long) size * size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Taille ou nombre de generations invalide: "
+                    + size + "/" + generations);
+        }
+        this.size = size;
+        this.generations = generations;
+        this.tileSize = tileSize;
+        this.depth = depth;
+        this.parallel = parallel;
+        this.rule = rule;
+        this.seed = seed;
+    }
+
+    /**
+     * Exécute le comparatif et en écrit le compte rendu
+     */
+    public void run(PrintStream out) {
+        TiledStepper stepper = new TiledStepper(rule, tileSize, depth, parallel);
+        int warmupSize = Math.min(size, WARMUP_SIZE);
+        byte[] warmup = randomCells(warmupSize, seed);
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            sweepAll(warmup.clone(), warmupSize, 2 * depth);
+            stepper.advance(warmup.clone(), warmupSize, warmupSize, 2 * depth);
+        }
+
+        byte[] initial = randomCells(size, seed);
+        long start = System.nanoTime();
+        byte[] swept = sweepAll(initial.clone(), size, generations);
+        double sweepSeconds = (System.nanoTime() - start) / 1e9;
+
+        start = System.nanoTime();
+        byte[] tiled = stepper.advance(initial.clone(), size, size, generations);
+        double tiledSeconds = (System.nanoTime() - start) / 1e9;
+
+        if (!Arrays.equals(swept, tiled)) {
+            throw new IllegalStateException("Les grilles obtenues par balayage et par tuiles different");
+        }
+
+        double cells = (double) size * size;
+        out.println("Grille " + size + "x" + size + " (" + formatBytes(cells) + "), "
+                + generations + " generations, regle " + rule + ", graine " + seed);
+        out.println("Tuiles " + tileSize + "x" + tileSize + ", profondeur " + depth + ", "
+                + (parallel ? Runtime.getRuntime().availableProcessors() + " coeur(s)" : "un seul thread")
+                + " pour les deux methodes");
+        out.println(String.format("  balayage par generation : %8.3f s  %8.1f Mcellules/s",
+                sweepSeconds, cells * generations / sweepSeconds / 1e6));
+        out.println(String.format("  blocage temporel        : %8.3f s  %8.1f Mcellules/s",
+                tiledSeconds, cells * generations / tiledSeconds / 1e6));
+        out.println(String.format("  temps balayage / temps tuiles : %.2f (%s)",
+                sweepSeconds / tiledSeconds,
+                tiledSeconds < sweepSeconds ? "blocage temporel plus rapide" : "balayage plus rapide"));
+        out.println("  grilles finales identiques (" + countLive(tiled) + " cellules vivantes)");
+    }
+
+    /**
+     * Référence : une génération à la fois sur toute la grille
+     */
+    private byte[] sweepAll(byte[] cells, int side, int count) {
+        byte[] src = cells;
+        byte[] dst = new byte[cells.length];
+        for (int g = 0; g < count; g++) {
+            TiledStepper.sweep(src, dst, side, side, rule, parallel);
+            byte[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+        return src;
+    }
+
+    /**
+     * Grille aléatoire remplie directement en octets, au format de
+     * TiledStepper (une ligne après l'autre, sans lignes de bord)
+     */
+    private static byte[] randomCells(int side, long seed) {
+        byte[] cells = new byte[side * side];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int k = 0; k < cells.length; k++) {
+            cells[k] = random.nextBoolean() ? (byte) 1 : (byte) 0;
+        }
+        return cells;
+    }
+
+    private static int countLive(byte[] cells) {
+        int live = 0;
+        for (byte cell : cells) {
+            live += cell;
+        }
+        return live;
+    }
+
+    private static String formatBytes(double bytes) {
+        if (bytes >= 1 << 30) {
+            return String.format("%.2f Go", bytes / (1 << 30));
+        }
+        return String.format("%.1f Mo", bytes / (1 << 20));
+    }
+}
@@ -1,9 +1,332 @@
+/**
+ * Rendu de la grille sur un <canvas> : seules les cellules modifiées depuis
+ * la dernière image sont repeintes, la vue complète n'est redessinée qu'après
+ * un zoom, un déplacement ou un changement de dimensions.
+ * Seule la fenêtre visible est demandée à l'API ; en vue éloignée (moins d'un
+ * pixel par cellule) on affiche un aperçu de densité par bloc.
+ */
+class GridRenderer {
+    constructor(canvas, onCellClick, onViewChange) {
+        this.canvas = canvas;
+        this.ctx = canvas.getContext('2d');
+        this.onCellClick = onCellClick;
+        this.onViewChange = onViewChange;
+        
+        this.rows = 0;
+        this.cols = 0;
+        this.view = null;                 // Fenêtre affichée {x, y, w, h, block}
+        this.values = new Float32Array(0); // 0/1 par cellule ou densité par bloc
+        this.dirty = [];                  // Index des valeurs à repeindre
+        this.fullRedraw = true;
+        this.frameRequested = false;
+        
+        // Vue : taille d'une cellule en pixels et origine (en cellules)
+        this.cellSize = 1;
+        this.originX = 0;
+        this.originY = 0;
+        
+        const styles = getComputedStyle(document.documentElement);
+        this.colors = {
+            alive: styles.getPropertyValue('--cell-alive').trim() || '#1e293b',
+            dead: styles.getPropertyValue('--cell-dead').trim() || '#f1f5f9',
+            gridLine: styles.getPropertyValue('--border').trim() || '#e2e8f0'
+        };
+        
+        this.resize();
+        this.initViewportEvents();
+        window.addEventListener('resize', () => this.resize());
+    }
+    
+    /**
+     * Adapte la résolution du canvas à sa taille CSS (écrans haute densité)
+     */
+    resize() {
+        const ratio = window.devicePixelRatio || 1;
+        const rect = this.canvas.getBoundingClientRect();
+        this.width = Math.max(1, Math.round(rect.width * ratio));
+        this.height = Math.max(1, Math.round(rect.height * ratio));
+        this.canvas.width = this.width;
+        this.canvas.height = this.height;
+        this.pixelRatio = ratio;
+        this.viewChanged();
+    }
+    
+    /**
+     * Gestion du zoom (molette), du déplacement (glisser) et des clics
+     */
+    initViewportEvents() {
+        this.canvas.addEventListener('wheel', (e) => {
+            e.preventDefault();
+            const [x, y] = this.toCanvasPixels(e);
+            const factor = e.deltaY < 0 ? 1.25 : 0.8;
+            this.zoomAt(x, y, this.cellSize * factor);
+        }, { passive: false });
+        
+        let drag = null;
+        this.canvas.addEventListener('pointerdown', (e) => {
+            this.canvas.setPointerCapture(e.pointerId);
+            drag = { startX: e.clientX, startY: e.clientY, lastX: e.clientX, lastY: e.clientY, moved: false };
+        });
+        
+        this.canvas.addEventListener('pointermove', (e) => {
+            if (!drag) return;
+            
+            const dx = e.clientX - drag.lastX;
+            const dy = e.clientY - drag.lastY;
+            if (!drag.moved && Math.hypot(e.clientX - drag.startX, e.clientY - drag.startY) > 4) {
+                drag.moved = true;
+                this.canvas.classList.add('panning');
+            }
+            if (drag.moved) {
+                this.pan(dx * this.pixelRatio, dy * this.pixelRatio);
+            }
+            drag.lastX = e.clientX;
+            drag.lastY = e.clientY;
+        });
+        
+        this.canvas.addEventListener('pointerup', (e) => {
+            // Pas de modification de cellule en vue aperçu (plusieurs cellules par pixel)
+            if (drag && !drag.moved && this.cellSize >= 1) {
+                const cell = this.cellAt(...this.toCanvasPixels(e));
+                if (cell) {
+                    this.onCellClick(cell.row, cell.col);
+                }
+            }
+            drag = null;
+            this.canvas.classList.remove('panning');
+        });
+    }
+    
+    toCanvasPixels(e) {
+        const rect = this.canvas.getBoundingClientRect();
+        return [(e.clientX - rect.left) * this.pixelRatio, (e.clientY - rect.top) * this.pixelRatio];
+    }
+    
+    /**
+     * Retourne la cellule sous un point du canvas (ou null hors grille)
+     */
+    cellAt(x, y) {
+        const col = Math.floor(this.originX + x / this.cellSize);
+        const row = Math.floor(this.originY + y / this.cellSize);
+        if (row < 0 || row >= this.rows || col < 0 || col >= this.cols) {
+            return null;
+        }
+        return { row, col };
+    }
+    
+    /**
+     * Zoom en gardant fixe la cellule sous le point (x, y)
+     */
+    zoomAt(x, y, newSize) {
+        const size = Math.min(64 * this.pixelRatio, Math.max(1 / 256, newSize));
+        const anchorX = this.originX + x / this.cellSize;
+        const anchorY = this.originY + y / this.cellSize;
+        this.cellSize = size;
+        this.originX = anchorX - x / size;
+        this.originY = anchorY - y / size;
+        this.viewChanged();
+    }
+    
+    pan(dx, dy) {
+        this.originX -= dx / this.cellSize;
+        this.originY -= dy / this.cellSize;
+        this.viewChanged();
+    }
+    
+    /**
+     * Ajuste le zoom pour afficher toute la grille
+     */
+    fitToView() {
+        if (!this.rows || !this.cols) return;
+        this.cellSize = Math.min(this.width / this.cols, this.height / this.rows);
+        this.originX = (this.cols - this.width / this.cellSize) / 2;
+        this.originY = (this.rows - this.height / this.cellSize) / 2;
+        this.viewChanged();
+    }
+    
+    /**
+     * La vue a bougé : redessiner et demander la nouvelle fenêtre à l'API
+     */
+    viewChanged() {
+        this.invalidate();
+        if (this.onViewChange && this.rows) {
+            this.onViewChange();
+        }
+    }
+    
+    /**
+     * Fenêtre visible (bornée à la grille) et taille de bloc pour l'aperçu :
+     * une puissance de 2 pour qu'un bloc couvre au moins un pixel
+     */
+    visibleWindow() {
+        const x = Math.max(0, Math.floor(this.originX));
+        const y = Math.max(0, Math.floor(this.originY));
+        const right = Math.min(this.cols, Math.ceil(this.originX + this.width / this.cellSize));
+        const bottom = Math.min(this.rows, Math.ceil(this.originY + this.height / this.cellSize));
+        const block = this.cellSize >= 1 ? 1 : 2 ** Math.ceil(Math.log2(1 / this.cellSize));
+        return { x, y, w: Math.max(0, right - x), h: Math.max(0, bottom - y), block };
+    }
+    
+    /**
+     * Paramètres de la requête d'état pour la vue courante
+     * (tant que les dimensions sont inconnues, seules les métadonnées sont demandées)
+     */
+    stateQuery() {
+        if (!this.rows) {
+            return '?x=0&y=0&w=0&h=0';
+        }
+        const { x, y, w, h, block } = this.visibleWindow();
+        return `?x=${x}&y=${y}&w=${w}&h=${h}` + (block > 1 ? `&block=${block}` : '');
+    }
+    
+    /**
+     * Retourne l'état affiché d'une cellule (faux hors de la fenêtre reçue)
+     */
+    isAlive(row, col) {
+        const view = this.view;
+        if (!view || view.block !== 1) return false;
+        const i = row - view.y;
+        const j = col - view.x;
+        if (i < 0 || i >= view.h || j < 0 || j >= view.w) return false;
+        return this.values[i * view.w + j] === 1;
+    }
+    
+    /**
+     * Reçoit un état de l'API (fenêtre ou aperçu) et note ce qui a changé
+     */
+    setState(state) {
+        if (state.rows !== this.rows || state.cols !== this.cols) {
+            this.rows = state.rows;
+            this.cols = state.cols;
+            this.view = null;
+            this.fitToView();
+            return;
+        }
+        
+        const block = state.block || 1;
+        const data = block > 1 ? state.density : state.grid;
+        const view = { x: state.x, y: state.y, w: Math.ceil(state.w / block), h: Math.ceil(state.h / block), block };
+        const sameView = this.view && this.view.x === view.x && this.view.y === view.y &&
+                         this.view.w === view.w && this.view.h === view.h && this.view.block === view.block;
+        
+        if (!sameView) {
+            this.view = view;
+            this.values = new Float32Array(view.w * view.h);
+            this.fullRedraw = true;
+        }
+        
+        for (let i = 0; i < view.h; i++) {
+            const row = data[i];
+            for (let j = 0; j < view.w; j++) {
+                const index = i * view.w + j;
+                const value = block > 1 ? row[j] : (row[j] ? 1 : 0);
+                if (this.values[index] !== value) {
+                    this.values[index] = value;
+                    if (sameView) this.dirty.push(index);
+                }
+            }
+        }
+        this.requestFrame();
+    }
+    
+    /**
+     * Force un rendu complet à la prochaine image
+     */
+    invalidate() {
+        this.fullRedraw = true;
+        this.requestFrame();
+    }
+    
+    requestFrame() {
+        if (this.frameRequested) return;
+        this.frameRequested = true;
+        requestAnimationFrame(() => {
+            this.frameRequested = false;
+            this.render();
+        });
+    }
+    
+    render() {
+        if (this.fullRedraw) {
+            this.renderAll();
+        } else {
+            for (const index of this.dirty) {
+                this.paintValue(index);
+            }
+        }
+        this.dirty.length = 0;
+        this.fullRedraw = false;
+    }
+    
+    /**
+     * Redessine toute la vue : fond, grille morte puis valeurs reçues
+     */
+    renderAll() {
+        const ctx = this.ctx;
+        ctx.fillStyle = this.colors.gridLine;
+        ctx.fillRect(0, 0, this.width, this.height);
+        if (!this.rows) return;
+        
+        ctx.fillStyle = this.colors.dead;
+        ctx.fillRect(-this.originX * this.cellSize, -this.originY * this.cellSize,
+                     this.cols * this.cellSize, this.rows * this.cellSize);
+        
+        if (this.view) {
+            for (let index = 0; index < this.values.length; index++) {
+                this.paintValue(index);
+            }
+        }
+    }
+    
+    /**
+     * Peint une cellule (ou un bloc de l'aperçu), ignorée si hors de la vue
+     */
+    paintValue(index) {
+        const view = this.view;
+        const block = view.block;
+        const row = view.y + Math.floor(index / view.w) * block;
+        const col = view.x + (index % view.w) * block;
+        const size = block * this.cellSize;
+        const x = (col - this.originX) * this.cellSize;
+        const y = (row - this.originY) * this.cellSize;
+        if (x + size < 0 || y + size < 0 || x > this.width || y > this.height) {
+            return;
+        }
+        
+        const ctx = this.ctx;
+        const value = this.values[index];
+        
+        if (block > 1) {
+            // Aperçu : couleur des cellules vivantes pondérée par la densité du bloc
+            const px = Math.floor(x), py = Math.floor(y), ps = Math.max(1, Math.ceil(size));
+            ctx.fillStyle = this.colors.dead;
+            ctx.fillRect(px, py, ps, ps);
+            ctx.globalAlpha = Math.min(1, value * 2);
+            ctx.fillStyle = this.colors.alive;
+            ctx.fillRect(px, py, ps, ps);
+            ctx.globalAlpha = 1;
+            return;
+        }
+        
+        // Un liseré d'un pixel sépare les cellules quand le zoom le permet
+        const gap = this.cellSize >= 6 ? 1 : 0;
+        ctx.fillStyle = value ? this.colors.alive : this.colors.dead;
+        ctx.fillRect(Math.floor(x) + gap, Math.floor(y) + gap,
+                     Math.ceil(this.cellSize) - gap, Math.ceil(this.cellSize) - gap);
+    }
+}
+
 class GameOfLifeUI {
     constructor() {
-        this.autoPlayInterval = null;
+        this.autoPlayFrame = null;
+        this.lastAutoStep = 0;
         this.currentSpeed = 1000;
-        this.previousGrid = null;
+        this.autoSteps = 1;
         this.isLoading = false;
+        this.refreshTimer = null;
+        this.renderer = new GridRenderer(document.getElementById('gridCanvas'),
+                                         (row, col) => this.toggleCell(row, col),
+                                         () => this.scheduleRefresh());
         
         this.initEventListeners();
         this.updateDisplay();
@@ -35,17 +358,18 @@ class GameOfLifeUI {
                 case 'KeyP':
                     this.setPattern();
                     break;
+                case 'KeyF':
+                    this.renderer.fitToView();
+                    break;
             }
         });
         
         // Contrôle de vitesse
         const speedSlider = document.getElementById('speedSlider');
         speedSlider.addEventListener('input', (e) => {
+            // Délai entre deux générations (curseur inversé : à droite, 0 ms),
+            // pris en compte à la prochaine image de la boucle automatique
             this.currentSpeed = parseInt(e.target.value);
-            if (this.autoPlayInterval) {
-                this.stopAuto();
-                this.startAuto();
-            }
         });
         
         // Gestion des erreurs globales
@@ -60,7 +384,7 @@ class GameOfLifeUI {
      */
     async fetchGameState() {
         try {
-            const response = await fetch('/api/game/state');
+            const response = await fetch('/api/game/state' + this.renderer.stateQuery());
             if (!response.ok) {
                 throw new Error(`HTTP ${response.status}: ${response.statusText}`);
             }
@@ -76,19 +400,22 @@ class GameOfLifeUI {
      * Met à jour l'affichage de l'interface
      */
     async updateDisplay() {
-        if (this.isLoading) return;
-        
         const state = await this.fetchGameState();
         if (!state) return;
         
         // Mise à jour des statistiques
         this.updateStats(state);
         
-        // Mise à jour de la grille avec animations
-        this.updateGrid(state);
-        
-        // Sauvegarder l'état précédent pour les animations
-        this.previousGrid = state.grid.map(row => [...row]);
+        // Seules les cellules modifiées seront repeintes
+        this.renderer.setState(state);
+    }
+    
+    /**
+     * Recharge la fenêtre visible peu après un zoom ou un déplacement
+     */
+    scheduleRefresh() {
+        clearTimeout(this.refreshTimer);
+        this.refreshTimer = setTimeout(() => this.updateDisplay(), 50);
     }
     
     /**
@@ -98,73 +425,15 @@ class GameOfLifeUI {
         document.getElementById('generation').textContent = state.generation;
         document.getElementById('liveCells').textContent = state.liveCells;
         
-        const survivalRate = Math.round((state.liveCells / 25) * 100);
+        const survivalRate = Math.round((state.liveCells / (state.rows * state.cols)) * 100);
         document.getElementById('survivalRate').textContent = survivalRate + '%';
     }
     
     /**
-     * Met à jour la grille avec animations
+     * Avance de steps générations ; la réponse contient directement l'état de
+     * la fenêtre visible, une seule requête suffit
      */
-    updateGrid(state) {
-        const grid = document.getElementById('grid');
-        
-        // Détection des changements pour les animations
-        const changes = this.detectChanges(state.grid);
-        
-        grid.innerHTML = '';
-        
-        for (let i = 0; i < 5; i++) {
-            for (let j = 0; j < 5; j++) {
-                const cell = this.createCell(i, j, state.grid[i][j], changes);
-                grid.appendChild(cell);
-            }
-        }
-    }
-    
-    /**
-     * Détecte les changements entre l'état précédent et actuel
-     */
-    detectChanges(currentGrid) {
-        const changes = [];
-        if (this.previousGrid) {
-            for (let i = 0; i < 5; i++) {
-                for (let j = 0; j < 5; j++) {
-                    if (this.previousGrid[i][j] !== currentGrid[i][j]) {
-                        changes.push({
-                            row: i, 
-                            col: j, 
-                            born: currentGrid[i][j]
-                        });
-                    }
-                }
-            }
-        }
-        return changes;
-    }
-    
-    /**
-     * Crée un élément cellule
-     */
-    createCell(row, col, isAlive, changes) {
-        const cell = document.createElement('div');
-        cell.className = 'cell ' + (isAlive ? 'alive' : 'dead');
-        
-        // Ajouter animation si changement
-        const change = changes.find(c => c.row === row && c.col === col);
-        if (change) {
-            cell.classList.add(change.born ? 'cell-birth' : 'cell-death');
-        }
-        
-        cell.onclick = () => this.toggleCell(row, col);
-        cell.title = `Cellule (${row},${col}) - ${isAlive ? 'Vivante' : 'Morte'}`;
-        
-        return cell;
-    }
-    
-    /**
-     * Passe à la génération suivante
-     */
-    async nextGeneration() {
+    async nextGeneration(silent = false, steps = 1) {
         if (this.isLoading) return;
         
         this.isLoading = true;
@@ -176,13 +445,18 @@ class GameOfLifeUI {
         }
         
         try {
-            const response = await fetch('/api/game/next', { method: 'POST' });
+            const query = this.renderer.stateQuery() + `&steps=${steps}`;
+            const response = await fetch('/api/game/next' + query, { method: 'POST' });
             if (!response.ok) {
                 throw new Error('Erreur lors de la génération suivante');
             }
             
-            await this.updateDisplay();
-            this.showNotification('Génération calculée', 'success');
+            const state = await response.json();
+            this.updateStats(state);
+            this.renderer.setState(state);
+            if (!silent) {
+                this.showNotification('Génération calculée', 'success');
+            }
         } catch (error) {
             console.error('Erreur:', error);
             this.showNotification('Erreur lors du calcul', 'danger');
@@ -203,7 +477,6 @@ class GameOfLifeUI {
         
         try {
             await fetch('/api/game/reset', { method: 'POST' });
-            this.previousGrid = null;
             await this.updateDisplay();
             this.showNotification('Jeu remis à zéro', 'success');
         } catch (error) {
@@ -219,10 +492,10 @@ class GameOfLifeUI {
         if (this.isLoading) return;
         
         try {
-            await fetch('/api/game/random', { method: 'POST' });
-            this.previousGrid = null;
+            const response = await fetch('/api/game/random', { method: 'POST' });
+            const result = await response.json();
             await this.updateDisplay();
-            this.showNotification('Grille aléatoire générée', 'success');
+            this.showNotification(`Grille aléatoire générée (graine ${result.seed})`, 'success');
         } catch (error) {
             console.error('Erreur:', error);
             this.showNotification('Erreur lors de la génération aléatoire', 'danger');
@@ -237,7 +510,6 @@ class GameOfLifeUI {
         
         try {
             await fetch('/api/game/pattern', { method: 'POST' });
-            this.previousGrid = null;
             await this.updateDisplay();
             this.showNotification('Pattern initial défini', 'success');
         } catch (error) {
@@ -253,10 +525,7 @@ class GameOfLifeUI {
         if (this.isLoading) return;
         
         try {
-            const state = await this.fetchGameState();
-            if (!state) return;
-            
-            const newState = !state.grid[row][col];
+            const newState = !this.renderer.isAlive(row, col);
             
             const response = await fetch('/api/game/cell', {
                 method: 'POST',
@@ -276,29 +545,54 @@ class GameOfLifeUI {
     }
     
     /**
-     * Démarre la lecture automatique
+     * Démarre la lecture automatique, cadencée par requestAnimationFrame :
+     * une génération est demandée dès que le délai choisi est écoulé et que
+     * la précédente est terminée. Avec un délai nul, chaque image demande
+     * autant de générations que le serveur en calcule pendant une image.
      */
     startAuto() {
-        if (this.autoPlayInterval) return;
+        if (this.autoPlayFrame) return;
         
-        this.autoPlayInterval = setInterval(() => {
-            this.nextGeneration();
-        }, this.currentSpeed);
+        const loop = (timestamp) => {
+            if (!this.isLoading && timestamp - this.lastAutoStep >= this.currentSpeed) {
+                this.lastAutoStep = timestamp;
+                const fullSpeed = this.currentSpeed === 0;
+                const started = performance.now();
+                this.nextGeneration(true, fullSpeed ? this.autoSteps : 1).then(() => {
+                    if (fullSpeed) this.adaptAutoSteps(performance.now() - started);
+                });
+            }
+            this.autoPlayFrame = requestAnimationFrame(loop);
+        };
+        this.autoPlayFrame = requestAnimationFrame(loop);
         
         const btn = document.getElementById('autoBtn');
         btn.innerHTML = '⏸️ Arrêter';
         btn.className = 'btn-danger';
         
-        this.showNotification(`Lecture auto démarrée (${this.currentSpeed}ms)`, 'success');
+        const speed = this.currentSpeed === 0 ? 'vitesse max' : `${this.currentSpeed}ms`;
+        this.showNotification(`Lecture auto démarrée (${speed})`, 'success');
+    }
+    
+    /**
+     * Ajuste le nombre de générations par requête à vitesse maximale pour
+     * qu'un aller-retour tienne dans une image (~16 ms)
+     */
+    adaptAutoSteps(elapsed) {
+        if (elapsed < 8 && this.autoSteps < 1024) {
+            this.autoSteps *= 2;
+        } else if (elapsed > 32 && this.autoSteps > 1) {
+            this.autoSteps = Math.floor(this.autoSteps / 2);
+        }
     }
     
     /**
      * Arrête la lecture automatique
      */
     stopAuto() {
-        if (this.autoPlayInterval) {
-            clearInterval(this.autoPlayInterval);
-            this.autoPlayInterval = null;
+        if (this.autoPlayFrame) {
+            cancelAnimationFrame(this.autoPlayFrame);
+            this.autoPlayFrame = null;
             
             const btn = document.getElementById('autoBtn');
             btn.innerHTML = '▶️ Lecture Auto';
@@ -312,7 +606,7 @@ class GameOfLifeUI {
      * Bascule la lecture automatique
      */
     toggleAutoPlay() {
-        if (this.autoPlayInterval) {
+        if (this.autoPlayFrame) {
             this.stopAuto();
         } else {
             this.startAuto();
@@ -396,12 +690,8 @@ function toggleAutoPlay() {
     gameUI.toggleAutoPlay();
 }
 
-// Initialisation quand le DOM est chargé
-document.addEventListener('DOMContentLoaded', () => {
-    gameUI = new GameOfLifeUI();
-});
-
-// Fallback si DOMContentLoaded a déjà été déclenché
+// Initialisation quand le DOM est chargé (une seule instance : le canvas
+// et le clavier ne doivent avoir qu'un seul jeu d'écouteurs)
 if (document.readyState === 'loading') {
     document.addEventListener('DOMContentLoaded', () => {
         gameUI = new GameOfLifeUI();